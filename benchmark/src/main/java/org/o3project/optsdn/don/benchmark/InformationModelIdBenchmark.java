@@ -0,0 +1,144 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.benchmark;
+
+import org.o3project.optsdn.don.nwc.InformationModelIdParser;
+import org.o3project.optsdn.don.nwc.Port;
+import org.o3project.optsdn.don.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the Information Model ID parsing. (Time per ID list)
+ * - parseWithMap: split, HashMap and substrings (the former Port constructor)
+ * - parseInPlace: InformationModelIdParser
+ * Run: java -jar target/benchmarks.jar InformationModelIdBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InformationModelIdBenchmark {
+  private static final String[] LAYERS = {Constants.ETHER, Constants.ODU, Constants.OCH};
+  private static final String[] PORT_TYPES = {Constants.TTP, Constants.CTP};
+
+  /* The number of Information Model IDs. */
+  @Param({"10000"})
+  public int idCount;
+
+  /* The number of NEs in the Information Model IDs. */
+  @Param({"100"})
+  public int neCount;
+
+  private String[] informationModelIds;
+  private InformationModelIdParser parser;
+
+  /**
+   * Create the Information Model IDs.
+   * (example: NW=SDN,NE=OPT1,Layer=ODU,CTP=1)
+   */
+  @Setup(Level.Trial)
+  public void setupIds() {
+    informationModelIds = new String[idCount];
+    for (int i = 0; i < idCount; i++) {
+      informationModelIds[i] = "NW=SDN,NE=OPT" + (i % neCount + 1)
+          + ",Layer=" + LAYERS[i % LAYERS.length]
+          + "," + PORT_TYPES[i % PORT_TYPES.length] + "=" + (i / neCount + 1);
+    }
+  }
+
+  /**
+   * Create the parser. (The intern pool is filled in the warmup.)
+   */
+  @Setup(Level.Iteration)
+  public void setupParser() {
+    parser = new InformationModelIdParser();
+  }
+
+  /**
+   * Parse with split, HashMap and substrings.
+   * 
+   * @param blackhole Blackhole
+   */
+  @Benchmark
+  public void parseWithMap(Blackhole blackhole) {
+    for (String informationModelId : informationModelIds) {
+      blackhole.consume(parseWithMap(informationModelId));
+    }
+  }
+
+  /**
+   * Parse with InformationModelIdParser.
+   * 
+   * @param blackhole Blackhole
+   */
+  @Benchmark
+  public void parseInPlace(Blackhole blackhole) {
+    for (String informationModelId : informationModelIds) {
+      blackhole.consume(parser.parse(informationModelId));
+    }
+  }
+
+  /**
+   * Create a port in the same way as the former Port constructor.
+   * 
+   * @param informationModelId The Information Model ID
+   * @return The port
+   */
+  private static Port parseWithMap(String informationModelId) {
+    String[] imIdExpressions = informationModelId.split(",");
+    Map<String, String> imIdMap = new HashMap<String, String>();
+    for (String expression : imIdExpressions) {
+      int firstEqualIndex = expression.indexOf("=");
+      imIdMap.put(
+          expression.substring(0, firstEqualIndex).trim(),
+          expression.substring(firstEqualIndex + 1, expression.length()).trim());
+    }
+
+    String portType = null;
+    Integer portId = 0;
+    String ttp = imIdMap.get(Constants.TTP);
+    String ctp = imIdMap.get(Constants.CTP);
+    if (ttp != null && ctp == null) {
+      portType = Constants.TTP;
+      portId = Integer.valueOf(ttp);
+    } else if (ctp != null && ttp == null) {
+      portType = Constants.CTP;
+      portId = Integer.valueOf(ctp);
+    }
+    return new Port(
+        informationModelId, imIdMap.get("NW"), imIdMap.get("NE"), imIdMap.get("Layer"),
+        portType, portId);
+  }
+}
@@ -0,0 +1,175 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.benchmark;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.handler.codec.embedder.CodecEmbedder;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.o3project.optsdn.don.openflow.OFMessageDecoder;
+import org.o3project.optsdn.don.openflow.OFMessageEncoder;
+import org.o3project.optsdn.don.openflow.OpenFlowHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the OpenFlow path on an embedded channel. (Time per stream)
+ * - decode: OFMessageDecoder with the stream split into TCP segments
+ * - handleFlowmods: OFMessageDecoder and OpenFlowHandler (Flowmod parsing and flow table)
+ * - encodeFlowmods: OFMessageEncoder with messages written one by one
+ * - encodeFlowStatsReplies: OFMessageEncoder with a List of Flow stats replies
+ * Run: java -jar target/benchmarks.jar [-p recordFile=(recorded stream)]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class OpenFlowPathBenchmark {
+  private static final long DPID = 1;
+
+  /* The number of created Flowmods. (Ignored for the stream if recordFile is set) */
+  @Param({"1000"})
+  public int messageCount;
+
+  /* The TCP segment size to split the stream. */
+  @Param({"1460"})
+  public int segmentSize;
+
+  /* The number of flow stats entries per Flow stats reply. */
+  @Param({"64"})
+  public int entriesPerReply;
+
+  /* The file of the recorded stream. (Empty: use the created Flowmods) */
+  @Param({""})
+  public String recordFile;
+
+  private byte[] stream;
+  private List<OFMessage> flowmodList;
+  private List<OFMessage> flowStatsReplyList;
+
+  private DecoderEmbedder<Object> decoder;
+  private DecoderEmbedder<Object> handler;
+  private EncoderEmbedder<ChannelBuffer> encoder;
+
+  /**
+   * Create the streams and messages.
+   * 
+   * @throws Exception Fail to load the recorded stream
+   */
+  @Setup(Level.Trial)
+  public void setupStreams() throws Exception {
+    flowmodList = OpenFlowStreams.createFlowmods(messageCount);
+    flowStatsReplyList = OpenFlowStreams.createFlowStatsReplies(flowmodList, entriesPerReply);
+    if (recordFile.isEmpty()) {
+      stream = OpenFlowStreams.toBytes(flowmodList);
+    } else {
+      stream = OpenFlowStreams.load(recordFile);
+    }
+  }
+
+  /**
+   * Create the embedded channels. (The flow table is cleared per iteration.)
+   */
+  @Setup(Level.Iteration)
+  public void setupChannels() {
+    decoder = new DecoderEmbedder<Object>(new OFMessageDecoder());
+    handler = new DecoderEmbedder<Object>(
+        new OFMessageDecoder(),
+        new OpenFlowHandler(OpenFlowStreams.factory, DPID, null, null, null, null));
+    encoder = new EncoderEmbedder<ChannelBuffer>(new OFMessageEncoder());
+  }
+
+  /**
+   * Decode the stream.
+   * 
+   * @param blackhole Blackhole
+   */
+  @Benchmark
+  public void decode(Blackhole blackhole) {
+    for (ChannelBuffer segment : OpenFlowStreams.toSegments(stream, segmentSize)) {
+      decoder.offer(segment);
+    }
+    drain(decoder, blackhole);
+  }
+
+  /**
+   * Decode the stream and proceed Flowmods.
+   * 
+   * @param blackhole Blackhole
+   */
+  @Benchmark
+  public void handleFlowmods(Blackhole blackhole) {
+    for (ChannelBuffer segment : OpenFlowStreams.toSegments(stream, segmentSize)) {
+      handler.offer(segment);
+    }
+    drain(handler, blackhole);
+  }
+
+  /**
+   * Encode messages one by one.
+   * 
+   * @param blackhole Blackhole
+   */
+  @Benchmark
+  public void encodeFlowmods(Blackhole blackhole) {
+    for (OFMessage flowmod : flowmodList) {
+      encoder.offer(flowmod);
+    }
+    drain(encoder, blackhole);
+  }
+
+  /**
+   * Encode a List of Flow stats replies into a composite buffer.
+   * 
+   * @param blackhole Blackhole
+   */
+  @Benchmark
+  public void encodeFlowStatsReplies(Blackhole blackhole) {
+    encoder.offer(flowStatsReplyList);
+    drain(encoder, blackhole);
+  }
+
+  /**
+   * Consume all the products of the embedded channel.
+   * 
+   * @param embedder  The embedded channel
+   * @param blackhole Blackhole
+   */
+  private void drain(CodecEmbedder<?> embedder, Blackhole blackhole) {
+    Object product;
+    while ((product = embedder.poll()) != null) {
+      blackhole.consume(product);
+    }
+  }
+}
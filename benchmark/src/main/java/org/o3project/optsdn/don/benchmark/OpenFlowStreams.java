@@ -0,0 +1,176 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.benchmark;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowMod;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFStatsReplyFlags;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.protocol.instruction.OFInstruction;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OduSigid;
+import org.projectfloodlight.openflow.types.OduSigtype;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * OpenFlow 1.3 OTN byte streams for benchmarks.
+ * - Load a recorded stream (TCP payload from OpenFlow controller to DON) from a file
+ * - Create a stream of Flowmod ADD messages like RYU-OE sends
+ *   (Match: IN_PORT, ODU_SIGTYPE, ODU_SIGID
+ *    Actions: WRITE_ACTIONS with SET_FIELD ODU_SIGTYPE, SET_FIELD ODU_SIGID and OUTPUT)
+ */
+public class OpenFlowStreams {
+  public static final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+  /* The number of ports used by the created Flowmods. */
+  private static final int PORT_COUNT = 64;
+
+  /**
+   * Load a recorded stream.
+   * 
+   * @param fileName The file of the recorded stream
+   * @return The stream
+   * @throws IOException File read error
+   */
+  public static byte[] load(String fileName) throws IOException {
+    return Files.readAllBytes(Paths.get(fileName));
+  }
+
+  /**
+   * Create Flowmod ADD messages with different matches.
+   * 
+   * @param count The number of messages
+   * @return The Flowmod messages
+   */
+  public static List<OFMessage> createFlowmods(int count) {
+    List<OFMessage> flowmodList = new ArrayList<OFMessage>();
+    for (int i = 0; i < count; i++) {
+      OFPort inPort = OFPort.of(i % PORT_COUNT + 1);
+      OFPort outputPort = OFPort.of((i + 1) % PORT_COUNT + 1);
+      OduSigtype oduSigtype = OduSigtype.of((byte) (i % 3 + 1));
+      OduSigid oduSigid = OduSigid.of((short) (i / PORT_COUNT + 1), (short) 1, (short) 0x01);
+
+      Match match = factory.buildMatch()
+          .setExact(MatchField.IN_PORT, inPort)
+          .setExact(MatchField.ODU_SIGTYPE, oduSigtype)
+          .setExact(MatchField.ODU_SIGID, oduSigid)
+          .build();
+      List<OFAction> actionList = Arrays.<OFAction>asList(
+          factory.actions().setField(factory.oxms().oduSigtype(oduSigtype)),
+          factory.actions().setField(factory.oxms().oduSigid(oduSigid)),
+          factory.actions().output(outputPort, 0));
+      List<OFInstruction> instructionList = Collections.<OFInstruction>singletonList(
+          factory.instructions().writeActions(actionList));
+
+      flowmodList.add(factory.buildFlowAdd()
+          .setXid(i + 1)
+          .setPriority(100)
+          .setMatch(match)
+          .setInstructions(instructionList)
+          .build());
+    }
+    return flowmodList;
+  }
+
+  /**
+   * Create Flow stats replies of the flow entries added by the Flowmod messages.
+   * 
+   * @param flowmodList      The Flowmod messages
+   * @param entriesPerReply  The number of flow stats entries per reply
+   * @return The Flow stats replies
+   */
+  public static List<OFMessage> createFlowStatsReplies(
+      List<OFMessage> flowmodList, int entriesPerReply) {
+    List<OFFlowStatsEntry> entryList = new ArrayList<OFFlowStatsEntry>();
+    for (OFMessage ofMessage : flowmodList) {
+      OFFlowMod flowmod = (OFFlowMod) ofMessage;
+      entryList.add(factory.buildFlowStatsEntry()
+          .setTableId(TableId.of(0))
+          .setPriority(flowmod.getPriority())
+          .setCookie(U64.ZERO)
+          .setPacketCount(U64.ZERO)
+          .setByteCount(U64.ZERO)
+          .setMatch(flowmod.getMatch())
+          .setInstructions(flowmod.getInstructions())
+          .build());
+    }
+
+    List<OFMessage> replyList = new ArrayList<OFMessage>();
+    for (int from = 0; from < entryList.size(); from += entriesPerReply) {
+      int to = Math.min(from + entriesPerReply, entryList.size());
+      replyList.add(factory.buildFlowStatsReply()
+          .setXid(1)
+          .setFlags(to < entryList.size()
+              ? EnumSet.of(OFStatsReplyFlags.REPLY_MORE)
+              : EnumSet.noneOf(OFStatsReplyFlags.class))
+          .setEntries(entryList.subList(from, to))
+          .build());
+    }
+    return replyList;
+  }
+
+  /**
+   * Serialize messages into a stream.
+   * 
+   * @param messageList The messages
+   * @return The stream
+   */
+  public static byte[] toBytes(List<OFMessage> messageList) {
+    ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+    for (OFMessage ofMessage : messageList) {
+      ofMessage.writeTo(buffer);
+    }
+    byte[] bytes = new byte[buffer.readableBytes()];
+    buffer.readBytes(bytes);
+    return bytes;
+  }
+
+  /**
+   * Split a stream into TCP segments.
+   * (The segment boundaries do not match the message boundaries.)
+   * 
+   * @param stream       The stream
+   * @param segmentSize  The segment size
+   * @return The segments
+   */
+  public static List<ChannelBuffer> toSegments(byte[] stream, int segmentSize) {
+    List<ChannelBuffer> segmentList = new ArrayList<ChannelBuffer>();
+    for (int from = 0; from < stream.length; from += segmentSize) {
+      segmentList.add(ChannelBuffers.wrappedBuffer(
+          stream, from, Math.min(segmentSize, stream.length - from)));
+    }
+    return segmentList;
+  }
+}
@@ -16,11 +16,26 @@
 
 package org.o3project.optsdn.don;
 
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.o3project.optsdn.don.controller.FakeOpenFlowController;
+import org.o3project.optsdn.don.controller.FlowmodWorkload;
 import org.o3project.optsdn.don.frame.MainFrame;
+import org.o3project.optsdn.don.nwc.Port;
+import org.o3project.optsdn.don.openflow.ConnectorToOpenFlowController;
 import org.o3project.optsdn.don.util.Config;
+import org.projectfloodlight.openflow.protocol.OFVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
 import javax.swing.JOptionPane;
 
 /**
@@ -29,15 +44,27 @@ import javax.swing.JOptionPane;
 public class Main {
   public static Logger logger = LoggerFactory.getLogger(Main.class);
 
+  /** The argument for launching DON in headless mode. */
+  private static final String HEADLESS_OPTION = "--headless";
+
+  /** The argument for starting the fake OpenFlow controller in headless mode. */
+  private static final String FAKE_CONTROLLER_OPTION = "--fake-controller";
+
   /**
    * Start DON(Main method).
    * 
-   * @param args (unused)
+   * @param args "--headless": launch without GUI (optional)
+   *             "--fake-controller": start the fake OpenFlow controller in headless mode
+   *             (optional, after "--headless")
    */
   public static void main(String[] args) {
     logger.info("Starting DON.");
     try {
-      launchGui();
+      if (args.length > 0 && HEADLESS_OPTION.equals(args[0])) {
+        launchHeadless(Arrays.asList(args).contains(FAKE_CONTROLLER_OPTION));
+      } else {
+        launchGui();
+      }
     } catch (Exception e) {
       logger.error("", e);
     }
@@ -66,5 +93,148 @@ public class Main {
     }
 
     mainFrame.setVisible(true);
+
+    new NetworkInformationWatcher(networkInformation, mainFrame).start();
+  }
+
+  /**
+   * Launch DON without GUI.
+   * All NEs that have DP ID are connected to OpenFlow controller at startup,
+   * and DON runs until all the connections are closed.
+   * NEs changed by the network information reload are reconnected.
+   * 
+   * @param fakeController true: start the fake OpenFlow controller on "ofcPortNumber"
+   *                       in the same process, and log the Flowmod latency at the end
+   * @throws Exception Launch Failed
+   */
+  public static void launchHeadless(boolean fakeController) throws Exception {
+    System.setProperty("java.awt.headless", "true");
+
+    Config.load("config.properties");
+
+    NetworkInformation networkInformation = new NetworkInformation();
+    networkInformation.readNetworkInformationFiles();
+
+    String ofcHostname = Config.getProperty("ofcHostname");
+    if (ofcHostname == null) {
+      throw new Exception("ofcHostname[" + ofcHostname + "] setting is invalid.");
+    }
+
+    String ofcPortNumberString = Config.getProperty("ofcPortNumber");
+    int ofcPortNumber;
+    try {
+      ofcPortNumber = Integer.valueOf(ofcPortNumberString);
+    } catch (NumberFormatException e) {
+      throw new Exception("ofcPortNumber[" + ofcPortNumberString + "] setting is invalid.", e);
+    }
+
+    FakeOpenFlowController fakeOpenFlowController = null;
+    if (fakeController) {
+      fakeOpenFlowController = new FakeOpenFlowController(ofcPortNumber, new FlowmodWorkload());
+      fakeOpenFlowController.start();
+    }
+
+    // The connections of NEs (Key:NE ID. Replaced by the network information reload)
+    final Map<String, Channel> channelMap = new HashMap<String, Channel>();
+    synchronized (channelMap) {
+      for (String neId : networkInformation.getDpidMap().keySet()) {
+        Channel channel = connectHeadless(networkInformation, neId, ofcHostname, ofcPortNumber);
+        if (channel != null) {
+          channelMap.put(neId, channel);
+        }
+      }
+      logger.info("Connected NE: {}/{}",
+          channelMap.size(), networkInformation.getDpidMap().size());
+    }
+
+    final String hostname = ofcHostname;
+    final int portNumber = ofcPortNumber;
+    NetworkInformationWatcher watcher = new NetworkInformationWatcher(networkInformation,
+        new NetworkInformationListener() {
+          @Override
+          public void networkInformationChanged(
+              NetworkInformation networkInformation, NetworkInformationDiff diff) {
+            synchronized (channelMap) {
+              Set<String> closedNeIdSet = new TreeSet<String>(diff.getRemovedNeIds());
+              closedNeIdSet.addAll(diff.getChangedNeIds());
+              for (String neId : closedNeIdSet) {
+                Channel channel = channelMap.remove(neId);
+                if (channel != null) {
+                  channel.close().awaitUninterruptibly();
+                  logger.info("{} is disconnected by the reload.", neId);
+                }
+              }
+
+              Set<String> connectedNeIdSet = new TreeSet<String>(diff.getAddedNeIds());
+              connectedNeIdSet.addAll(diff.getChangedNeIds());
+              connectedNeIdSet.retainAll(networkInformation.getDpidMap().keySet());
+              for (String neId : connectedNeIdSet) {
+                Channel channel =
+                    connectHeadless(networkInformation, neId, hostname, portNumber);
+                if (channel != null) {
+                  channelMap.put(neId, channel);
+                }
+              }
+            }
+          }
+        });
+    watcher.start();
+
+    while (true) {
+      Map<String, Channel> waitingChannelMap;
+      synchronized (channelMap) {
+        if (channelMap.isEmpty()) {
+          break;
+        }
+        waitingChannelMap = new HashMap<String, Channel>(channelMap);
+      }
+      for (Entry<String, Channel> entry : waitingChannelMap.entrySet()) {
+        entry.getValue().getCloseFuture().awaitUninterruptibly();
+        synchronized (channelMap) {
+          if (channelMap.get(entry.getKey()) == entry.getValue()) {
+            channelMap.remove(entry.getKey());
+          }
+        }
+      }
+    }
+    logger.info("All connections are closed.");
+    watcher.stop();
+    ConnectorToOpenFlowController.releaseSharedResources();
+    if (fakeOpenFlowController != null) {
+      fakeOpenFlowController.stop();
+    }
+  }
+
+  /**
+   * Connect a NE to OpenFlow controller without GUI.
+   * 
+   * @param networkInformation Network Information
+   * @param neId               The NE ID (must have DP ID)
+   * @param ofcHostname        The host name of OpenFlow controller
+   * @param ofcPortNumber      The port number of OpenFlow controller
+   * @return The connection (null if failed to connect)
+   */
+  private static Channel connectHeadless(NetworkInformation networkInformation,
+      String neId, String ofcHostname, int ofcPortNumber) {
+    long dpid = networkInformation.getDpidMap().get(neId);
+    List<Port> portList = networkInformation.getNePorts(neId);
+
+    ConnectorToOpenFlowController connector = new ConnectorToOpenFlowController();
+    try {
+      ChannelFuture channelFuture = connector.connectToOpenFlowController(
+          ofcHostname,
+          ofcPortNumber,
+          OFVersion.OF_13,
+          dpid,
+          portList,
+          null,
+          null
+      );
+      logger.info("{}(DPID={}) is connected to OpenFlow controller.", neId, dpid);
+      return channelFuture.getChannel();
+    } catch (Exception e) {
+      logger.error(neId + "(DPID=" + dpid + ") failed to connect to OpenFlow controller.", e);
+      return null;
+    }
   }
 }
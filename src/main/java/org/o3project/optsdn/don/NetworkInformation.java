@@ -16,11 +16,18 @@
 
 package org.o3project.optsdn.don;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 import org.apache.commons.lang3.StringUtils;
+import org.o3project.optsdn.don.nwc.InformationModelIdParser;
+import org.o3project.optsdn.don.nwc.Layer;
 import org.o3project.optsdn.don.nwc.Port;
-import org.o3project.optsdn.don.util.Constants;
+import org.o3project.optsdn.don.nwc.PortIndex;
+import org.o3project.optsdn.don.nwc.PortType;
+import org.o3project.optsdn.don.util.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,16 +35,23 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.math.BigInteger;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Read and manage network information.
@@ -53,10 +67,18 @@ public class NetworkInformation {
   private static final String DPID = "dpid";
   private static final String PORT = "port";
 
+  /* The factory for streaming JSON parsers. (Shares the symbol table of field names) */
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /* The number of ports per task in setting OpenFlow port IDs. */
+  private static final int OPENFLOW_PORT_CHUNK_SIZE = 8192;
+
   /* The set for NE ID(network element ID). */
   private Set<String> neIdSet;
   /* The Set for ports. */
   private Set<Port> portSet;
+  /* The index for ports. (Built after all files are read) */
+  private PortIndex portIndex;
   /* The Map for links(inside NE). (Key:NE ID, Value:link) */
   private Map<String, List<List<Port>>> linkMap;
   /* The Map for NE connections with OMS(interconnect).
@@ -67,53 +89,168 @@ public class NetworkInformation {
   /* The Map for DP ID management. (Key:NE ID, Value:DP ID) */
   private Map<String, Long> dpidMap;
 
+  /** The directory of the network information files. */
+  public static final String DATA_DIR_NAME = "data";
+
+  /* The file types of network information. */
+  private enum FileType {
+    BOUNDARY,
+    OCH_LINK,
+    IDEX
+  }
+
+  /* The network information files. (Key:file name, Value:file type) */
+  private static final Map<String, FileType> FILE_TYPE_MAP;
+
+  static {
+    FILE_TYPE_MAP = new LinkedHashMap<String, FileType>();
+    FILE_TYPE_MAP.put("ll1.txt", FileType.BOUNDARY);
+    FILE_TYPE_MAP.put("ll2.txt", FileType.BOUNDARY);
+    FILE_TYPE_MAP.put("och_link.txt", FileType.OCH_LINK);
+    FILE_TYPE_MAP.put("idex.txt", FileType.IDEX);
+  }
+
   /**
    * Read defined network information.
+   * - The snapshot is read instead of the files if the files are not changed
+   *   (Config: networkInformationSnapshot)
+   * - Otherwise the files are read, and the snapshot is written
    * 
    * @throws Exception File Read Failed
    */
   public void readNetworkInformationFiles() throws Exception {
-    neIdSet = new TreeSet<String>();
-    portSet = new LinkedHashSet<Port>();
-    linkMap = new HashMap<String, List<List<Port>>>();
-    nePtMap = new HashMap<String, String>();
-    dpidMap = new HashMap<String, Long>();
-
-    final String dataDirName = "data";
+    Map<String, FileType> fileTypeMap = new LinkedHashMap<String, FileType>();
+    for (Entry<String, FileType> entry : FILE_TYPE_MAP.entrySet()) {
+      fileTypeMap.put(DATA_DIR_NAME + File.separator + entry.getKey(), entry.getValue());
+    }
 
-    final String ll1FilePath = dataDirName + File.separator + "ll1.txt";
-    try {
-      parseBoundaryFile(ll1FilePath);
-    } catch (Exception e) {
-      logger.error("File Read Failed: {}", ll1FilePath);
-      throw e;
+    File snapshotFile = getSnapshotFile();
+    long snapshotKey = 0;
+    if (snapshotFile != null) {
+      snapshotKey = NetworkInformationSnapshot.createKey(fileTypeMap.keySet());
+      if (NetworkInformationSnapshot.read(snapshotFile, snapshotKey, this)) {
+        logger.info("Read - Snapshot: {}", snapshotFile);
+        logNetworkInformations();
+        return;
+      }
     }
 
-    final String ll2FilePath = dataDirName + File.separator + "ll2.txt";
-    try {
-      parseBoundaryFile(ll2FilePath);
-    } catch (Exception e) {
-      logger.error("File Read Failed: {}", ll2FilePath);
-      throw e;
+    readFiles(fileTypeMap);
+
+    if (snapshotFile != null) {
+      NetworkInformationSnapshot.write(snapshotFile, snapshotKey, this);
     }
 
-    final String ochLinkFilePath = dataDirName + File.separator + "och_link.txt";
+    logNetworkInformations();
+  }
+
+  /**
+   * Read the network information files.
+   * - LL1, LL2, OCh Link and IDEx files are read concurrently into partial models
+   * - The partial models are merged in the order of the files
+   * - OpenFlow port IDs are set to the merged ports in parallel
+   * 
+   * @param fileTypeMap The network information files (Key:file path, Value:file type)
+   * @throws Exception File Read Failed
+   */
+  private void readFiles(Map<String, FileType> fileTypeMap) throws Exception {
+    int threadCount = Math.min(fileTypeMap.size(), Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
     try {
-      parseOchLinkFile(ochLinkFilePath);
-    } catch (Exception e) {
-      logger.error("File Read Failed: {}", ochLinkFilePath);
-      throw e;
+      Map<String, Future<PartialModel>> futureMap =
+          new LinkedHashMap<String, Future<PartialModel>>();
+      for (Entry<String, FileType> entry : fileTypeMap.entrySet()) {
+        futureMap.put(entry.getKey(),
+            executor.submit(new FileReadTask(entry.getKey(), entry.getValue())));
+      }
+
+      neIdSet = new TreeSet<String>();
+      portSet = new LinkedHashSet<Port>();
+      linkMap = new HashMap<String, List<List<Port>>>();
+      omsConnectionInfoListMap = new HashMap<String, List<List<Port>>>();
+      nePtMap = new HashMap<String, String>();
+      dpidMap = new HashMap<String, Long>();
+      Map<String, Integer> ofPortMap = new HashMap<String, Integer>();
+
+      for (Entry<String, Future<PartialModel>> entry : futureMap.entrySet()) {
+        PartialModel model;
+        try {
+          model = entry.getValue().get();
+        } catch (ExecutionException e) {
+          logger.error("File Read Failed: {}", entry.getKey());
+          if (e.getCause() instanceof Exception) {
+            throw (Exception) e.getCause();
+          }
+          throw e;
+        }
+
+        neIdSet.addAll(model.neIdSet);
+        portSet.addAll(model.portSet);
+        mergeLinks(linkMap, model.linkMap);
+        mergeLinks(omsConnectionInfoListMap, model.omsConnectionInfoListMap);
+        nePtMap.putAll(model.nePtMap);
+        dpidMap.putAll(model.dpidMap);
+        ofPortMap.putAll(model.ofPortMap);
+      }
+
+      portIndex = new PortIndex(portSet);
+      setOpenFlowPortIds(ofPortMap, executor);
+    } finally {
+      executor.shutdownNow();
     }
+  }
 
-    final String idExFilePath = dataDirName + File.separator + "idex.txt";
+  /**
+   * Get the snapshot file from the configuration.
+   * 
+   * @return The snapshot file (null if not configured)
+   */
+  private File getSnapshotFile() {
+    String snapshotFilePath;
     try {
-      parseIdExFile(idExFilePath);
+      snapshotFilePath = Config.getProperty("networkInformationSnapshot");
     } catch (Exception e) {
-      logger.error("File Read Failed: {}", idExFilePath);
-      throw e;
+      snapshotFilePath = null;
+    }
+    if (snapshotFilePath == null || snapshotFilePath.trim().isEmpty()) {
+      return null;
     }
+    return new File(snapshotFilePath.trim());
+  }
 
-    logNetworkInformations();
+  /**
+   * Set the network information. (for NetworkInformationSnapshot)
+   * 
+   * @param neIdSet                  The set for NE ID
+   * @param portSet                  The Set for ports
+   * @param linkMap                  The Map for links
+   * @param omsConnectionInfoListMap The Map for OMS connections
+   * @param nePtMap                  The Map for PT ID management
+   * @param dpidMap                  The Map for DP ID management
+   */
+  void setNetworkInformation(
+      Set<String> neIdSet,
+      Set<Port> portSet,
+      Map<String, List<List<Port>>> linkMap,
+      Map<String, List<List<Port>>> omsConnectionInfoListMap,
+      Map<String, String> nePtMap,
+      Map<String, Long> dpidMap) {
+    this.neIdSet = neIdSet;
+    this.portSet = portSet;
+    this.linkMap = linkMap;
+    this.omsConnectionInfoListMap = omsConnectionInfoListMap;
+    this.nePtMap = nePtMap;
+    this.dpidMap = dpidMap;
+    this.portIndex = new PortIndex(portSet);
+  }
+
+  /**
+   * Get the names of the network information files in the data directory.
+   * 
+   * @return The file names
+   */
+  public static Set<String> getFileNames() {
+    return Collections.unmodifiableSet(FILE_TYPE_MAP.keySet());
   }
 
   /**
@@ -152,6 +289,30 @@ public class NetworkInformation {
     return portSet;
   }
 
+  /**
+   * Get the index for ports.
+   * 
+   * @return The index for ports
+   */
+  public PortIndex getPortIndex() {
+    return portIndex;
+  }
+
+  /**
+   * Get the ports of a NE and its PT.
+   * 
+   * @param neId The NE ID
+   * @return The ports (NE ports, then PT ports)
+   */
+  public List<Port> getNePorts(String neId) {
+    List<Port> portList = new ArrayList<Port>(portIndex.getPorts(neId, null, null));
+    String ptId = nePtMap.get(neId);
+    if (ptId != null) {
+      portList.addAll(portIndex.getPorts(ptId, null, null));
+    }
+    return portList;
+  }
+
   /**
    * Get the Map for PT ID management.
    * 
@@ -174,121 +335,131 @@ public class NetworkInformation {
    * Get informations from IDEx file(idex.txt).
    * - DP ID
    * - OF Port
+   * Notes:
+   *   - The file is read line by line, and each line is parsed as an entry.
+   *     (example: "NW=SDN,NE=OPT1,Layer=ODU,TTP=1":{"dpid":"1","port":"1"})
    * 
    * @param filepath The IDEx file path
+   * @param model    The partial model to store the informations
    * @throws Exception File Read Failed
    */
-  private void parseIdExFile(String filepath) throws Exception {
-    String idexJson = readIdexAsJson(filepath);
-
-    ObjectMapper mapper = new ObjectMapper();
-    @SuppressWarnings("unchecked")
-    Map<String, Map<String, String>> value = mapper.readValue(idexJson, Map.class);
-
-    Set<Entry<String, Map<String, String>>> entrySet = value.entrySet();
-    dpidMap = new HashMap<String, Long>();
-    Map<String, Integer> ofPortMap = new HashMap<String, Integer>();
-    for (Entry<String, Map<String, String>> entry : entrySet) {
-      Map<String, String> params = entry.getValue();
-      BigInteger bigintDpid = new BigInteger(params.get(DPID));
-      if (bigintDpid.compareTo(BigInteger.valueOf(0)) < 0
-          || bigintDpid.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0) {
-        throw new Exception("DP ID is out of boundary. (DP ID valid between 0 and 2^63-1)");
-      }
-      long dpid = bigintDpid.longValue();
-
-      String informationModelId = entry.getKey();
-      Port port = new Port(informationModelId);
-      String neId = port.getNeId();
-
-      Long existDpid = dpidMap.get(neId);
-      if (existDpid == null) {
-        dpidMap.put(neId, dpid);
-      } else if (!existDpid.equals(dpid)) {
-        logger.warn("Fail to add DP ID[" + dpid + "]. "
-            + "The DP ID of NE[" + neId + "] is already set"
-            + "(exist DP ID[" + existDpid + "]).");
-      }
+  private void parseIdExFile(String filepath, PartialModel model) throws Exception {
 
-      int ofPortId = Integer.valueOf(params.get(PORT));
-      Integer existOfPortId = ofPortMap.get(informationModelId);
-      if (existOfPortId != null) {
-        if (!existOfPortId.equals(ofPortId)) {
-          logger.warn("Fail to add OpenFlow Port ID[" + ofPortId + "]. "
-              + "The OpenFlow Port ID of Port[" + informationModelId + "] is already set"
-              + "(exist OpenFlow Port ID[" + existOfPortId + "]).");
-        }
-      } else {
-        if (ofPortId < 0 && ofPortId > Integer.MAX_VALUE) {
-          throw new Exception("OpenFlow Port ID is out of boundary. "
-              + "(OpenFlow Port ID valid between 0 and 2^31-1)");
+    BufferedReader reader = new BufferedReader(new FileReader(new File(filepath)));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // Ignore empty line
+        if (line.isEmpty()) {
+          continue;
         }
-
-        ofPortMap.put(informationModelId, ofPortId);
+        parseIdExEntry(line, model);
       }
+    } finally {
+      reader.close();
     }
+  }
 
-    for (Port port : portSet) {
-      Integer openFlowPortId = ofPortMap.get(port.getInformationModelId());
-      if (openFlowPortId == null) {
-        continue;
-      }
-      port.setOpenFlowPortId(openFlowPortId);
+  /**
+   * Get DP ID and OF Port from an entry of IDEx file(idex.txt).
+   * 
+   * @param line  The line of the entry
+   * @param model The partial model to store the informations
+   * @throws Exception Invalid entry
+   */
+  private void parseIdExEntry(String line, PartialModel model) throws Exception {
+    int keyStart = line.indexOf('"');
+    int keyEnd = (keyStart < 0) ? -1 : line.indexOf('"', keyStart + 1);
+    int colonIndex = (keyEnd < 0) ? -1 : line.indexOf(':', keyEnd + 1);
+    if (colonIndex < 0) {
+      throw new Exception("IDEx entry[" + line + "] is invalid.");
     }
+    String informationModelId = line.substring(keyStart + 1, keyEnd);
 
-    for (List<List<Port>> linkList : omsConnectionInfoListMap.values()) {
-      for (List<Port> link : linkList) {
-        Port port1 = link.get(0);
-        Integer openFlowPortId1 = ofPortMap.get(port1.getInformationModelId());
-        if (openFlowPortId1 != null) {
-          port1.setOpenFlowPortId(openFlowPortId1);
+    String dpidText = null;
+    String portText = null;
+    StringReader valueReader = new StringReader(line);
+    valueReader.skip(colonIndex + 1);
+    JsonParser parser = JSON_FACTORY.createParser(valueReader);
+    try {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException("IDEx entry must be a JSON object.",
+            parser.getCurrentLocation());
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.getCurrentName();
+        parser.nextToken();
+        if (DPID.equals(fieldName)) {
+          dpidText = parser.getText();
+        } else if (PORT.equals(fieldName)) {
+          portText = parser.getText();
+        } else {
+          parser.skipChildren();
         }
+      }
+    } finally {
+      parser.close();
+    }
+    if (dpidText == null || portText == null) {
+      throw new Exception("IDEx entry[" + line + "] is invalid. (" + DPID + " or " + PORT
+          + " is not found)");
+    }
 
-        Port port2 = link.get(1);
-        Integer openFlowPortId2 = ofPortMap.get(port2.getInformationModelId());
-        if (openFlowPortId2 != null) {
-          port2.setOpenFlowPortId(openFlowPortId2);
-        }
+    long dpid = parseDpid(dpidText);
+
+    Port port = model.informationModelIdParser.parse(informationModelId);
+    String neId = port.getNeId();
+
+    Long existDpid = model.dpidMap.get(neId);
+    if (existDpid == null) {
+      model.dpidMap.put(neId, dpid);
+    } else if (!existDpid.equals(dpid)) {
+      logger.warn("Fail to add DP ID[" + dpid + "]. "
+          + "The DP ID of NE[" + neId + "] is already set"
+          + "(exist DP ID[" + existDpid + "]).");
+    }
+
+    int ofPortId = Integer.valueOf(portText);
+    Integer existOfPortId = model.ofPortMap.get(informationModelId);
+    if (existOfPortId != null) {
+      if (!existOfPortId.equals(ofPortId)) {
+        logger.warn("Fail to add OpenFlow Port ID[" + ofPortId + "]. "
+            + "The OpenFlow Port ID of Port[" + informationModelId + "] is already set"
+            + "(exist OpenFlow Port ID[" + existOfPortId + "]).");
+      }
+    } else {
+      if (ofPortId < 0) {
+        throw new Exception("OpenFlow Port ID is out of boundary. "
+            + "(OpenFlow Port ID valid between 0 and 2^31-1)");
       }
+
+      model.ofPortMap.put(informationModelId, ofPortId);
     }
   }
 
   /**
-   * Read IDEx file(idex.txt) and transform to JSON format.
-   * Example:
-   *   Change the format from
-   *     Key1:Value1
-   *     Key2:Value2
-   *   to
-   *     {Key1:Value1,Key2:Value2}
+   * Parse a DP ID as an unsigned decimal number.
    * 
-   * @param filepath The IDEx file path
-   * @return The string of JSON format
-   * @throws IOException File Read Failed
+   * @param dpidText The DP ID
+   * @return The DP ID
+   * @throws Exception The DP ID is not a number, or out of boundary
    */
-  private String readIdexAsJson(String filepath) throws IOException {
-    BufferedReader reader = new BufferedReader(new FileReader(new File(filepath)));
-
-    StringBuilder builder = new StringBuilder();
-    String line;
-    while ((line = reader.readLine()) != null) {
-      // Ignore empty line
-      if (line.isEmpty()) {
-        continue;
+  private static long parseDpid(String dpidText) throws Exception {
+    if (dpidText.isEmpty()) {
+      throw new Exception("DP ID[" + dpidText + "] is not a number.");
+    }
+    long dpid = 0;
+    for (int i = 0; i < dpidText.length(); i++) {
+      int digit = dpidText.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new Exception("DP ID[" + dpidText + "] is not a number.");
       }
-
-      // Add comma at the end of line
-      if (builder.length() > 0) {
-        builder.append(",");
+      if (dpid > (Long.MAX_VALUE - digit) / 10) {
+        throw new Exception("DP ID is out of boundary. (DP ID valid between 0 and 2^63-1)");
       }
-
-      builder.append(line);
+      dpid = dpid * 10 + digit;
     }
-
-    reader.close();
-
-    // Add curly bracket
-    return "{" + builder.toString() + "}";
+    return dpid;
   }
 
   /**
@@ -296,39 +467,63 @@ public class NetworkInformation {
    * - Port ID
    * - Link
    * - PT ID (Get PT ID if ODU layer-TTP is connect with Ether layer-TTP)
+   * Notes:
+   *   - The file is a sequence of JSON objects (one object per line),
+   *     and read with one streaming parser without creating a Map per line.
+   *   - Only lower_nw_port and upper_nw_port are read, and other fields are skipped.
    * 
    * @param filepath The LL1 or LL2 file path
+   * @param model    The partial model to store the informations
    * @throws IOException File Read Failed
    */
-  private void parseBoundaryFile(String filepath) throws IOException {
-    BufferedReader reader = new BufferedReader(new FileReader(new File(filepath)));
-    ObjectMapper mapper = new ObjectMapper();
-    String line;
-    while ((line = reader.readLine()) != null) {
-      // Ignore empty line
-      if (line.isEmpty()) {
-        continue;
-      }
-      @SuppressWarnings("unchecked")
-      Map<String, String> jsonMap = mapper.readValue(line, Map.class);
+  private void parseBoundaryFile(String filepath, PartialModel model) throws IOException {
+    JsonParser parser = JSON_FACTORY.createParser(new File(filepath));
+    try {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        if (token != JsonToken.START_OBJECT) {
+          throw new JsonParseException("Boundary must be a JSON object.",
+              parser.getCurrentLocation());
+        }
+
+        String lowerNwPort = null;
+        String upperNwPort = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String fieldName = parser.getCurrentName();
+          parser.nextToken();
+          if (LOWER_NW_PORT.equals(fieldName)) {
+            lowerNwPort = parser.getText();
+          } else if (UPPER_NW_PORT.equals(fieldName)) {
+            upperNwPort = parser.getText();
+          } else {
+            parser.skipChildren();
+          }
+        }
+        if (lowerNwPort == null || upperNwPort == null) {
+          throw new JsonParseException(
+              LOWER_NW_PORT + " or " + UPPER_NW_PORT + " is not found.",
+              parser.getCurrentLocation());
+        }
 
-      Port lowerPort = new Port(jsonMap.get(LOWER_NW_PORT));
-      Port upperPort = new Port(jsonMap.get(UPPER_NW_PORT));
+        Port lowerPort = model.informationModelIdParser.parse(lowerNwPort);
+        Port upperPort = model.informationModelIdParser.parse(upperNwPort);
 
-      portSet.add(lowerPort);
-      portSet.add(upperPort);
+        model.portSet.add(lowerPort);
+        model.portSet.add(upperPort);
 
-      addLink(lowerPort.getNeId(), lowerPort, upperPort);
+        model.addLink(lowerPort.getNeId(), lowerPort, upperPort);
 
-      // Get PT ID if ODU layer-TTP is connect with Ether layer-TTP
-      if (lowerPort.getLayer().equals(Constants.ODU)
-          && lowerPort.getPortType().equals(Constants.TTP)
-          && upperPort.getLayer().equals(Constants.ETHER)
-          && upperPort.getPortType().equals(Constants.TTP)) {
-        nePtMap.put(lowerPort.getNeId(), upperPort.getNeId());
+        // Get PT ID if ODU layer-TTP is connect with Ether layer-TTP
+        if (lowerPort.getLayerValue() == Layer.ODU
+            && lowerPort.getPortTypeValue() == PortType.TTP
+            && upperPort.getLayerValue() == Layer.ETHER
+            && upperPort.getPortTypeValue() == PortType.TTP) {
+          model.nePtMap.put(lowerPort.getNeId(), upperPort.getNeId());
+        }
       }
+    } finally {
+      parser.close();
     }
-    reader.close();
   }
 
   /**
@@ -337,94 +532,168 @@ public class NetworkInformation {
    * - Port ID
    * - Link
    * - NE connections with OMS
+   * Notes:
+   *   - The ochlink array is read element by element with a streaming parser,
+   *     and each OCh link is added without binding the whole document.
    * 
    * @param filepath The OCh Link file path.
+   * @param model    The partial model to store the informations
    * @throws IOException File Read Failed
    */
-  private void parseOchLinkFile(String filepath) throws IOException {
-    omsConnectionInfoListMap = new HashMap<String, List<List<Port>>>();
+  private void parseOchLinkFile(String filepath, PartialModel model) throws IOException {
+    JsonParser parser = JSON_FACTORY.createParser(new File(filepath));
+    try {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException("OCh Link must be a JSON object.",
+            parser.getCurrentLocation());
+      }
 
-    BufferedReader reader = new BufferedReader(new FileReader(new File(filepath)));
-    String omsConnectionInfoJson = reader.readLine();
-    reader.close();
-
-    ObjectMapper mapper = new ObjectMapper();
-    @SuppressWarnings("rawtypes")
-    Map value = mapper.readValue(omsConnectionInfoJson, Map.class);
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    List<Map> omsConnectionInfoList = (List<Map>) value.get(OCH_LINK);
-    for (@SuppressWarnings("rawtypes") Map omsConnectionInfo : omsConnectionInfoList) {
-      String informationModelId1 = (String) omsConnectionInfo.get(TERMINATION1);
-      Port port1 = new Port(informationModelId1);
-      portSet.add(port1);
-
-      String informationModelId2 = (String) omsConnectionInfo.get(TERMINATION2);
-      Port port2 = new Port(informationModelId2);
-      portSet.add(port2);
-
-      String neId1 = port1.getNeId();
-      String neId2 = port2.getNeId();
-      String layer1 = port1.getLayer();
-      String layer2 = port2.getLayer();
-      String portType1 = port1.getPortType();
-      String portType2 = port2.getPortType();
-
-      // If different NE
-      if (!neId1.equals(neId2)
-          && layer1.equals(Constants.OCH)
-          && layer2.equals(Constants.OCH)
-          && portType1.equals(Constants.CTP)
-          && portType2.equals(Constants.CTP)) {
-        // Add OMS connections
-        addOmsConnection(port1, port2);
-        addOmsConnection(port2, port1);
-
-      // If same NE
-      } else if (neId1.equals(neId2)
-          && layer1.equals(Constants.OCH)
-          && layer2.equals(Constants.OCH)) {
-        if (portType1.equals(Constants.TTP) && portType2.equals(Constants.CTP)
-            || portType1.equals(Constants.CTP) && portType2.equals(Constants.TTP)
-            || portType1.equals(Constants.CTP) && portType2.equals(Constants.CTP)) {
-          // Add link
-          addLink(neId1, port1, port2);
+      boolean ochLinkFound = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.getCurrentName();
+        if (parser.nextToken() != JsonToken.START_ARRAY || !OCH_LINK.equals(fieldName)) {
+          parser.skipChildren();
+          continue;
         }
+
+        ochLinkFound = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+          if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException("OCh link must be a JSON object.",
+                parser.getCurrentLocation());
+          }
+          parseOchLink(parser, model);
+        }
+      }
+      if (!ochLinkFound) {
+        throw new JsonParseException(OCH_LINK + " is not found.", parser.getCurrentLocation());
       }
+    } finally {
+      parser.close();
+    }
+  }
 
-      neIdSet.add(neId1);
-      neIdSet.add(neId2);
+  /**
+   * Read an OCh link and add it to the NE, link and OMS connection informations.
+   * 
+   * @param parser The parser at the start of the OCh link object
+   * @param model  The partial model to store the informations
+   * @throws IOException File Read Failed
+   */
+  private void parseOchLink(JsonParser parser, PartialModel model) throws IOException {
+    String informationModelId1 = null;
+    String informationModelId2 = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if (TERMINATION1.equals(fieldName)) {
+        informationModelId1 = parser.getText();
+      } else if (TERMINATION2.equals(fieldName)) {
+        informationModelId2 = parser.getText();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (informationModelId1 == null || informationModelId2 == null) {
+      throw new JsonParseException(
+          TERMINATION1 + " or " + TERMINATION2 + " is not found.",
+          parser.getCurrentLocation());
+    }
 
+    Port port1 = model.informationModelIdParser.parse(informationModelId1);
+    model.portSet.add(port1);
+
+    Port port2 = model.informationModelIdParser.parse(informationModelId2);
+    model.portSet.add(port2);
+
+    String neId1 = port1.getNeId();
+    String neId2 = port2.getNeId();
+    Layer layer1 = port1.getLayerValue();
+    Layer layer2 = port2.getLayerValue();
+    PortType portType1 = port1.getPortTypeValue();
+    PortType portType2 = port2.getPortTypeValue();
+
+    // If different NE
+    if (!neId1.equals(neId2)
+        && layer1 == Layer.OCH
+        && layer2 == Layer.OCH
+        && portType1 == PortType.CTP
+        && portType2 == PortType.CTP) {
+      // Add OMS connections
+      model.addOmsConnection(port1, port2);
+      model.addOmsConnection(port2, port1);
+
+    // If same NE
+    } else if (neId1.equals(neId2)
+        && layer1 == Layer.OCH
+        && layer2 == Layer.OCH) {
+      if (portType1 == PortType.TTP && portType2 == PortType.CTP
+          || portType1 == PortType.CTP && portType2 == PortType.TTP
+          || portType1 == PortType.CTP && portType2 == PortType.CTP) {
+        // Add link
+        model.addLink(neId1, port1, port2);
+      }
     }
+
+    model.neIdSet.add(neId1);
+    model.neIdSet.add(neId2);
   }
 
   /**
-   * Add a link to the link Map.
+   * Merge the links of a partial model.
    * 
-   * @param neId   NE ID that the link belongs to
-   * @param port1  Port1
-   * @param port2  Port2
+   * @param linkMap        The Map for links to be merged into (Key:NE ID, Value:link)
+   * @param partialLinkMap The Map for links of the partial model (Key:NE ID, Value:link)
    */
-  private void addLink(String neId, Port port1, Port port2) {
-    if (linkMap.get(neId) == null) {
-      linkMap.put(neId, new ArrayList<List<Port>>());
+  private static void mergeLinks(
+      Map<String, List<List<Port>>> linkMap, Map<String, List<List<Port>>> partialLinkMap) {
+    for (Entry<String, List<List<Port>>> entry : partialLinkMap.entrySet()) {
+      List<List<Port>> linkList = linkMap.get(entry.getKey());
+      if (linkList == null) {
+        linkMap.put(entry.getKey(), entry.getValue());
+      } else {
+        linkList.addAll(entry.getValue());
+      }
     }
-    List<Port> edgePorts = Arrays.asList(port1, port2);
-    linkMap.get(neId).add(edgePorts);
   }
 
   /**
-   * Add a OMS connection to OMS Map.
+   * Set OpenFlow port IDs to the ports and the ports of OMS connections.
+   * (The ports are divided into chunks, and the chunks are processed in parallel.)
    * 
-   * @param port1 Source port.
-   * @param port2 Destination port.
+   * @param ofPortMap The Map for OF Port (Key:Information Model ID, Value:OF Port)
+   * @param executor  The executor for the chunks
+   * @throws Exception Fail to set OpenFlow port IDs
    */
-  private void addOmsConnection(Port port1, Port port2) {
-    String neId = port1.getNeId();
-    if (omsConnectionInfoListMap.get(neId) == null) {
-      omsConnectionInfoListMap.put(neId, new ArrayList<List<Port>>());
+  private void setOpenFlowPortIds(final Map<String, Integer> ofPortMap, ExecutorService executor)
+      throws Exception {
+    List<Port> portList = new ArrayList<Port>(portIndex.getAllPorts());
+    for (List<List<Port>> linkList : omsConnectionInfoListMap.values()) {
+      for (List<Port> link : linkList) {
+        portList.addAll(link);
+      }
+    }
+
+    List<Future<?>> futureList = new ArrayList<Future<?>>();
+    for (int start = 0; start < portList.size(); start += OPENFLOW_PORT_CHUNK_SIZE) {
+      final List<Port> chunk =
+          portList.subList(start, Math.min(start + OPENFLOW_PORT_CHUNK_SIZE, portList.size()));
+      futureList.add(executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          for (Port port : chunk) {
+            Integer openFlowPortId = ofPortMap.get(port.getInformationModelId());
+            if (openFlowPortId != null) {
+              port.setOpenFlowPortId(openFlowPortId);
+            }
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futureList) {
+      future.get();
     }
-    List<Port> link = Arrays.asList(port1, port2);
-    omsConnectionInfoListMap.get(neId).add(link);
   }
 
   /**
@@ -447,4 +716,90 @@ public class NetworkInformation {
     }
     logger.info("Read - DPID: {}", StringUtils.join(dpidLogList, ", "));
   }
-}
+
+  /**
+   * The task that reads a network information file into a partial model.
+   */
+  private class FileReadTask implements Callable<PartialModel> {
+    private final String filepath;
+    private final FileType fileType;
+
+    /**
+     * Constructor.
+     * 
+     * @param filepath The file path
+     * @param fileType The file type
+     */
+    public FileReadTask(String filepath, FileType fileType) {
+      super();
+      this.filepath = filepath;
+      this.fileType = fileType;
+    }
+
+    @Override
+    public PartialModel call() throws Exception {
+      PartialModel model = new PartialModel();
+      switch (fileType) {
+        case BOUNDARY:
+          parseBoundaryFile(filepath, model);
+          break;
+        case OCH_LINK:
+          parseOchLinkFile(filepath, model);
+          break;
+        case IDEX:
+          parseIdExFile(filepath, model);
+          break;
+        default:
+          break;
+      }
+      return model;
+    }
+  }
+
+  /**
+   * The network information read from a file.
+   * (Used only by the reading thread until merged.)
+   */
+  private static class PartialModel {
+    private final InformationModelIdParser informationModelIdParser =
+        new InformationModelIdParser();
+    private final Set<String> neIdSet = new TreeSet<String>();
+    private final Set<Port> portSet = new LinkedHashSet<Port>();
+    private final Map<String, List<List<Port>>> linkMap = new HashMap<String, List<List<Port>>>();
+    private final Map<String, List<List<Port>>> omsConnectionInfoListMap =
+        new HashMap<String, List<List<Port>>>();
+    private final Map<String, String> nePtMap = new HashMap<String, String>();
+    private final Map<String, Long> dpidMap = new HashMap<String, Long>();
+    private final Map<String, Integer> ofPortMap = new HashMap<String, Integer>();
+
+    /**
+     * Add a link to the link Map.
+     * 
+     * @param neId   NE ID that the link belongs to
+     * @param port1  Port1
+     * @param port2  Port2
+     */
+    private void addLink(String neId, Port port1, Port port2) {
+      if (linkMap.get(neId) == null) {
+        linkMap.put(neId, new ArrayList<List<Port>>());
+      }
+      List<Port> edgePorts = Arrays.asList(port1, port2);
+      linkMap.get(neId).add(edgePorts);
+    }
+
+    /**
+     * Add a OMS connection to OMS Map.
+     * 
+     * @param port1 Source port.
+     * @param port2 Destination port.
+     */
+    private void addOmsConnection(Port port1, Port port2) {
+      String neId = port1.getNeId();
+      if (omsConnectionInfoListMap.get(neId) == null) {
+        omsConnectionInfoListMap.put(neId, new ArrayList<List<Port>>());
+      }
+      List<Port> link = Arrays.asList(port1, port2);
+      omsConnectionInfoListMap.get(neId).add(link);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don;
+
+import org.o3project.optsdn.don.nwc.Port;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The difference of NEs between the live network information and a reloaded one.
+ * - Added: NEs only in the reloaded network information
+ * - Removed: NEs only in the live network information
+ * - Changed: NEs whose DP ID, PT, ports, OpenFlow port IDs, links or OMS connections are changed
+ * Notes:
+ *   - NEs that are not in any of them are untouched by the reload.
+ */
+public class NetworkInformationDiff {
+  private final Set<String> addedNeIds = new TreeSet<String>();
+  private final Set<String> removedNeIds = new TreeSet<String>();
+  private final Set<String> changedNeIds = new TreeSet<String>();
+
+  /**
+   * Create the difference.
+   * 
+   * @param liveInformation     The live network information
+   * @param reloadedInformation The reloaded network information
+   * @return The difference
+   */
+  public static NetworkInformationDiff create(
+      NetworkInformation liveInformation, NetworkInformation reloadedInformation) {
+    NetworkInformationDiff diff = new NetworkInformationDiff();
+
+    Set<String> liveNeIds = getNeIds(liveInformation);
+    Set<String> reloadedNeIds = getNeIds(reloadedInformation);
+    for (String neId : reloadedNeIds) {
+      if (!liveNeIds.contains(neId)) {
+        diff.addedNeIds.add(neId);
+      } else if (!createNeDefinition(liveInformation, neId).equals(
+          createNeDefinition(reloadedInformation, neId))) {
+        diff.changedNeIds.add(neId);
+      }
+    }
+    for (String neId : liveNeIds) {
+      if (!reloadedNeIds.contains(neId)) {
+        diff.removedNeIds.add(neId);
+      }
+    }
+    return diff;
+  }
+
+  /**
+   * Get the added NE IDs.
+   * 
+   * @return The added NE IDs
+   */
+  public Set<String> getAddedNeIds() {
+    return Collections.unmodifiableSet(addedNeIds);
+  }
+
+  /**
+   * Get the removed NE IDs.
+   * 
+   * @return The removed NE IDs
+   */
+  public Set<String> getRemovedNeIds() {
+    return Collections.unmodifiableSet(removedNeIds);
+  }
+
+  /**
+   * Get the changed NE IDs.
+   * 
+   * @return The changed NE IDs
+   */
+  public Set<String> getChangedNeIds() {
+    return Collections.unmodifiableSet(changedNeIds);
+  }
+
+  /**
+   * Check if no NE is added, removed or changed.
+   * 
+   * @return true: if no difference
+   *         false: otherwise
+   */
+  public boolean isEmpty() {
+    return addedNeIds.isEmpty() && removedNeIds.isEmpty() && changedNeIds.isEmpty();
+  }
+
+  /**
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return "added=" + addedNeIds + ", removed=" + removedNeIds + ", changed=" + changedNeIds;
+  }
+
+  /**
+   * Get the NE IDs. (NEs in OCh links and NEs that have DP ID)
+   * 
+   * @param networkInformation The network information
+   * @return The NE IDs
+   */
+  private static Set<String> getNeIds(NetworkInformation networkInformation) {
+    Set<String> neIdSet = new TreeSet<String>(networkInformation.getNeIdSet());
+    neIdSet.addAll(networkInformation.getDpidMap().keySet());
+    return neIdSet;
+  }
+
+  /**
+   * Create the definition of a NE to be compared.
+   * 
+   * @param networkInformation The network information
+   * @param neId               The NE ID
+   * @return The definition
+   */
+  private static List<Object> createNeDefinition(
+      NetworkInformation networkInformation, String neId) {
+    List<Object> definition = new ArrayList<Object>();
+    definition.add(networkInformation.getDpidMap().get(neId));
+    definition.add(networkInformation.getNePtMap().get(neId));
+
+    List<Port> portList = networkInformation.getNePorts(neId);
+    definition.add(portList.size());
+    for (Port port : portList) {
+      addPortDefinition(definition, port);
+    }
+
+    addLinksDefinition(definition, networkInformation.getLinkMap().get(neId));
+    addLinksDefinition(definition, networkInformation.getOmsConnectionInfoListMap().get(neId));
+    return definition;
+  }
+
+  /**
+   * Add the definition of links.
+   * 
+   * @param definition The definition
+   * @param linkList   The links (null if not exists)
+   */
+  private static void addLinksDefinition(List<Object> definition, List<List<Port>> linkList) {
+    if (linkList == null) {
+      definition.add(0);
+      return;
+    }
+    definition.add(linkList.size());
+    for (List<Port> link : linkList) {
+      for (Port port : link) {
+        addPortDefinition(definition, port);
+      }
+    }
+  }
+
+  /**
+   * Add the definition of a port.
+   * 
+   * @param definition The definition
+   * @param port       The port
+   */
+  private static void addPortDefinition(List<Object> definition, Port port) {
+    definition.add(port.getInformationModelId());
+    definition.add(port.getOpenFlowPortId());
+  }
+}
@@ -0,0 +1,443 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don;
+
+import org.o3project.optsdn.don.nwc.Port;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Binary snapshot of the network information.
+ * - Written after the network information files are read
+ * - Read at once into a heap buffer instead of the files, if the files are not changed
+ *   (The snapshot is keyed by the path, size and last modified time of the files.)
+ * Format:
+ *   header(magic, version, key), string table, ports, port set, NE IDs,
+ *   links, OMS connections, PT IDs, DP IDs, trailer(magic)
+ * Notes:
+ *   - Strings are written once in the string table, and referred by the index.
+ *   - Port instances are written once, and referred by the index.
+ *     (The same instances are shared by the port set, links and OMS connections after read.)
+ *   - The snapshot is not memory mapped, not to lock the file while it is replaced.
+ */
+class NetworkInformationSnapshot {
+  public static Logger logger = LoggerFactory.getLogger(NetworkInformationSnapshot.class);
+
+  private static final int MAGIC = 0x444f4e53;
+  private static final int VERSION = 1;
+  private static final int NULL_INDEX = -1;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /**
+   * Create the key of the snapshot from the network information files.
+   * 
+   * @param filePaths The network information file paths
+   * @return The key
+   */
+  static long createKey(Collection<String> filePaths) {
+    long key = VERSION;
+    for (String filePath : filePaths) {
+      File file = new File(filePath);
+      key = mix(key, filePath.hashCode());
+      key = mix(key, file.length());
+      key = mix(key, file.lastModified());
+    }
+    return key;
+  }
+
+  /**
+   * Read the snapshot into the network information.
+   * 
+   * @param snapshotFile       The snapshot file
+   * @param key                The key of the network information files
+   * @param networkInformation The network information to be set
+   * @return true: if read
+   *         false: if the snapshot does not exist, is for other files, or is broken
+   */
+  static boolean read(File snapshotFile, long key, NetworkInformation networkInformation) {
+    if (!snapshotFile.isFile()) {
+      return false;
+    }
+
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotFile.toPath()));
+
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        logger.warn("Snapshot[{}] is not a snapshot of this version.", snapshotFile);
+        return false;
+      }
+      if (buffer.getLong() != key) {
+        logger.info("Snapshot[{}] is out of date.", snapshotFile);
+        return false;
+      }
+
+      String[] strings = new String[getCount(buffer, 4)];
+      for (int i = 0; i < strings.length; i++) {
+        byte[] bytes = new byte[getCount(buffer, 1)];
+        buffer.get(bytes);
+        strings[i] = new String(bytes, UTF_8);
+      }
+
+      Port[] ports = new Port[getCount(buffer, 28)];
+      for (int i = 0; i < ports.length; i++) {
+        String informationModelId = getRequiredString(buffer, strings);
+        String nw = getString(buffer, strings);
+        String neId = getString(buffer, strings);
+        String layer = getString(buffer, strings);
+        String portType = getString(buffer, strings);
+        int portId = buffer.getInt();
+        int openFlowPortId = buffer.getInt();
+        ports[i] = new Port(informationModelId, nw, neId, layer, portType, portId);
+        if (openFlowPortId != NULL_INDEX) {
+          ports[i].setOpenFlowPortId(openFlowPortId);
+        }
+      }
+
+      int portSetSize = getCount(buffer, 4);
+      Set<Port> portSet = new LinkedHashSet<Port>();
+      for (int i = 0; i < portSetSize; i++) {
+        portSet.add(ports[buffer.getInt()]);
+      }
+
+      int neIdCount = getCount(buffer, 4);
+      Set<String> neIdSet = new TreeSet<String>();
+      for (int i = 0; i < neIdCount; i++) {
+        neIdSet.add(getRequiredString(buffer, strings));
+      }
+
+      Map<String, List<List<Port>>> linkMap = getLinkMap(buffer, strings, ports);
+      Map<String, List<List<Port>>> omsConnectionInfoListMap = getLinkMap(buffer, strings, ports);
+
+      int nePtCount = getCount(buffer, 8);
+      Map<String, String> nePtMap = new HashMap<String, String>();
+      for (int i = 0; i < nePtCount; i++) {
+        nePtMap.put(getRequiredString(buffer, strings), getRequiredString(buffer, strings));
+      }
+
+      int dpidCount = getCount(buffer, 12);
+      Map<String, Long> dpidMap = new HashMap<String, Long>();
+      for (int i = 0; i < dpidCount; i++) {
+        dpidMap.put(getRequiredString(buffer, strings), buffer.getLong());
+      }
+
+      if (buffer.getInt() != MAGIC) {
+        logger.warn("Snapshot[{}] is broken.", snapshotFile);
+        return false;
+      }
+
+      networkInformation.setNetworkInformation(
+          neIdSet, portSet, linkMap, omsConnectionInfoListMap, nePtMap, dpidMap);
+      return true;
+    } catch (IOException | RuntimeException e) {
+      // e.g. BufferUnderflowException, IndexOutOfBoundsException
+      logger.warn("Snapshot[" + snapshotFile + "] is broken.", e);
+      return false;
+    }
+  }
+
+  /**
+   * Write the snapshot of the network information.
+   * (The snapshot is written to a temporary file, and replaces the old one.)
+   * 
+   * @param snapshotFile       The snapshot file
+   * @param key                The key of the network information files
+   * @param networkInformation The network information
+   */
+  static void write(File snapshotFile, long key, NetworkInformation networkInformation) {
+    Map<String, Integer> stringMap = new LinkedHashMap<String, Integer>();
+    Map<Port, Integer> portMap = new IdentityHashMap<Port, Integer>();
+    List<Port> portList = new ArrayList<Port>();
+
+    for (Port port : networkInformation.getPortSet()) {
+      addPort(port, portMap, portList, stringMap);
+    }
+    addLinkPorts(networkInformation.getLinkMap(), portMap, portList, stringMap);
+    addLinkPorts(networkInformation.getOmsConnectionInfoListMap(), portMap, portList, stringMap);
+    for (String neId : networkInformation.getNeIdSet()) {
+      addString(neId, stringMap);
+    }
+    for (Entry<String, String> entry : networkInformation.getNePtMap().entrySet()) {
+      addString(entry.getKey(), stringMap);
+      addString(entry.getValue(), stringMap);
+    }
+    for (String neId : networkInformation.getDpidMap().keySet()) {
+      addString(neId, stringMap);
+    }
+
+    File tempFile = new File(snapshotFile.getPath() + ".tmp");
+    try {
+      DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tempFile)));
+      try {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(key);
+
+        out.writeInt(stringMap.size());
+        for (String string : stringMap.keySet()) {
+          byte[] bytes = string.getBytes(UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+
+        out.writeInt(portList.size());
+        for (Port port : portList) {
+          out.writeInt(stringMap.get(port.getInformationModelId()));
+          out.writeInt(getStringIndex(port.getNw(), stringMap));
+          out.writeInt(getStringIndex(port.getNeId(), stringMap));
+          out.writeInt(getStringIndex(port.getLayer(), stringMap));
+          out.writeInt(getStringIndex(port.getPortType(), stringMap));
+          out.writeInt(port.getPortId());
+          Integer openFlowPortId = port.getOpenFlowPortId();
+          out.writeInt((openFlowPortId == null) ? NULL_INDEX : openFlowPortId);
+        }
+
+        out.writeInt(networkInformation.getPortSet().size());
+        for (Port port : networkInformation.getPortSet()) {
+          out.writeInt(portMap.get(port));
+        }
+
+        out.writeInt(networkInformation.getNeIdSet().size());
+        for (String neId : networkInformation.getNeIdSet()) {
+          out.writeInt(stringMap.get(neId));
+        }
+
+        writeLinkMap(out, networkInformation.getLinkMap(), stringMap, portMap);
+        writeLinkMap(out, networkInformation.getOmsConnectionInfoListMap(), stringMap, portMap);
+
+        out.writeInt(networkInformation.getNePtMap().size());
+        for (Entry<String, String> entry : networkInformation.getNePtMap().entrySet()) {
+          out.writeInt(stringMap.get(entry.getKey()));
+          out.writeInt(stringMap.get(entry.getValue()));
+        }
+
+        out.writeInt(networkInformation.getDpidMap().size());
+        for (Entry<String, Long> entry : networkInformation.getDpidMap().entrySet()) {
+          out.writeInt(stringMap.get(entry.getKey()));
+          out.writeLong(entry.getValue());
+        }
+
+        out.writeInt(MAGIC);
+      } finally {
+        out.close();
+      }
+      Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      logger.info("Write - Snapshot: {}", snapshotFile);
+    } catch (IOException e) {
+      logger.warn("Fail to write snapshot[" + snapshotFile + "].", e);
+      tempFile.delete();
+    }
+  }
+
+  /**
+   * Add a port and its strings to the tables.
+   * 
+   * @param port      The port
+   * @param portMap   The table of ports (Key:port instance, Value:index)
+   * @param portList  The ports in the order of the index
+   * @param stringMap The table of strings (Key:string, Value:index)
+   */
+  private static void addPort(Port port, Map<Port, Integer> portMap, List<Port> portList,
+      Map<String, Integer> stringMap) {
+    if (portMap.containsKey(port)) {
+      return;
+    }
+    portMap.put(port, portList.size());
+    portList.add(port);
+    addString(port.getInformationModelId(), stringMap);
+    addString(port.getNw(), stringMap);
+    addString(port.getNeId(), stringMap);
+    addString(port.getLayer(), stringMap);
+    addString(port.getPortType(), stringMap);
+  }
+
+  /**
+   * Add the ports of links to the tables.
+   * 
+   * @param linkMap   The Map for links (Key:NE ID, Value:link)
+   * @param portMap   The table of ports (Key:port instance, Value:index)
+   * @param portList  The ports in the order of the index
+   * @param stringMap The table of strings (Key:string, Value:index)
+   */
+  private static void addLinkPorts(Map<String, List<List<Port>>> linkMap,
+      Map<Port, Integer> portMap, List<Port> portList, Map<String, Integer> stringMap) {
+    for (Entry<String, List<List<Port>>> entry : linkMap.entrySet()) {
+      addString(entry.getKey(), stringMap);
+      for (List<Port> link : entry.getValue()) {
+        for (Port port : link) {
+          addPort(port, portMap, portList, stringMap);
+        }
+      }
+    }
+  }
+
+  /**
+   * Add a string to the table.
+   * 
+   * @param string    The string (ignored if null)
+   * @param stringMap The table of strings (Key:string, Value:index)
+   */
+  private static void addString(String string, Map<String, Integer> stringMap) {
+    if (string != null && !stringMap.containsKey(string)) {
+      stringMap.put(string, stringMap.size());
+    }
+  }
+
+  /**
+   * Get the index of a string.
+   * 
+   * @param string    The string
+   * @param stringMap The table of strings (Key:string, Value:index)
+   * @return The index (NULL_INDEX if the string is null)
+   */
+  private static int getStringIndex(String string, Map<String, Integer> stringMap) {
+    if (string == null) {
+      return NULL_INDEX;
+    }
+    return stringMap.get(string);
+  }
+
+  /**
+   * Write links.
+   * 
+   * @param out       The output
+   * @param linkMap   The Map for links (Key:NE ID, Value:link)
+   * @param stringMap The table of strings (Key:string, Value:index)
+   * @param portMap   The table of ports (Key:port instance, Value:index)
+   * @throws IOException Write Failed
+   */
+  private static void writeLinkMap(DataOutputStream out, Map<String, List<List<Port>>> linkMap,
+      Map<String, Integer> stringMap, Map<Port, Integer> portMap) throws IOException {
+    out.writeInt(linkMap.size());
+    for (Entry<String, List<List<Port>>> entry : linkMap.entrySet()) {
+      out.writeInt(stringMap.get(entry.getKey()));
+      out.writeInt(entry.getValue().size());
+      for (List<Port> link : entry.getValue()) {
+        out.writeInt(portMap.get(link.get(0)));
+        out.writeInt(portMap.get(link.get(1)));
+      }
+    }
+  }
+
+  /**
+   * Read a string index and get the string.
+   * 
+   * @param buffer  The snapshot
+   * @param strings The string table
+   * @return The string (null if NULL_INDEX)
+   */
+  private static String getString(ByteBuffer buffer, String[] strings) {
+    int index = buffer.getInt();
+    if (index == NULL_INDEX) {
+      return null;
+    }
+    return strings[index];
+  }
+
+  /**
+   * Read a string index that must not be NULL_INDEX, and get the string.
+   * 
+   * @param buffer  The snapshot
+   * @param strings The string table
+   * @return The string
+   * @throws IOException The index is NULL_INDEX
+   */
+  private static String getRequiredString(ByteBuffer buffer, String[] strings)
+      throws IOException {
+    String string = getString(buffer, strings);
+    if (string == null) {
+      throw new IOException("Required string is null at " + (buffer.position() - 4) + ".");
+    }
+    return string;
+  }
+
+  /**
+   * Read the number of elements, and check it with the remaining size.
+   * 
+   * @param buffer      The snapshot
+   * @param elementSize The min size of an element (bytes)
+   * @return The number of elements
+   * @throws IOException The number is negative or exceeds the remaining size
+   */
+  private static int getCount(ByteBuffer buffer, int elementSize) throws IOException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / elementSize) {
+      throw new IOException("Invalid count[" + count + "] at " + (buffer.position() - 4) + ".");
+    }
+    return count;
+  }
+
+  /**
+   * Read links.
+   * 
+   * @param buffer  The snapshot
+   * @param strings The string table
+   * @param ports   The ports
+   * @return The Map for links (Key:NE ID, Value:link)
+   * @throws IOException The snapshot is broken
+   */
+  private static Map<String, List<List<Port>>> getLinkMap(
+      ByteBuffer buffer, String[] strings, Port[] ports) throws IOException {
+    int entryCount = getCount(buffer, 8);
+    Map<String, List<List<Port>>> linkMap = new HashMap<String, List<List<Port>>>();
+    for (int i = 0; i < entryCount; i++) {
+      String neId = getRequiredString(buffer, strings);
+      int linkCount = getCount(buffer, 8);
+      List<List<Port>> linkList = new ArrayList<List<Port>>(linkCount);
+      for (int j = 0; j < linkCount; j++) {
+        Port port1 = ports[buffer.getInt()];
+        Port port2 = ports[buffer.getInt()];
+        linkList.add(Arrays.asList(port1, port2));
+      }
+      linkMap.put(neId, linkList);
+    }
+    return linkMap;
+  }
+
+  /**
+   * Mix a value into the key. (FNV-1a like)
+   * 
+   * @param key   The key
+   * @param value The value
+   * @return The mixed key
+   */
+  private static long mix(long key, long value) {
+    return (key ^ value) * 0x100000001b3L;
+  }
+}
@@ -0,0 +1,211 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don;
+
+import org.o3project.optsdn.don.util.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watcher of the network information files.
+ * - Changes of the files in the data directory are watched (Config: networkInformationReloadDelay)
+ * - The files are reloaded after no change is detected for the delay
+ * - The listener is notified of the NEs added, removed or changed by the reload
+ * Notes:
+ *   - The live network information is kept if the reload failed.
+ */
+public class NetworkInformationWatcher {
+  public static Logger logger = LoggerFactory.getLogger(NetworkInformationWatcher.class);
+
+  /* The default delay before reload(msec). */
+  private static final long DEFAULT_RELOAD_DELAY = 1000;
+
+  private final NetworkInformationListener listener;
+
+  /* The network information currently used. (Replaced by the watcher thread) */
+  private volatile NetworkInformation networkInformation;
+
+  /* The delay before reload(msec). (0: reload is disabled) */
+  private final long reloadDelay;
+
+  private WatchService watchService;
+
+  /**
+   * Constructor.
+   * 
+   * @param networkInformation The network information currently used
+   * @param listener           The listener of the reload
+   */
+  public NetworkInformationWatcher(
+      NetworkInformation networkInformation, NetworkInformationListener listener) {
+    super();
+    this.networkInformation = networkInformation;
+    this.listener = listener;
+
+    long delay;
+    try {
+      delay = Long.valueOf(Config.getProperty("networkInformationReloadDelay"));
+    } catch (Exception e) {
+      delay = DEFAULT_RELOAD_DELAY;
+    }
+    this.reloadDelay = Math.max(delay, 0);
+  }
+
+  /**
+   * Start watching the network information files.
+   * (Nothing is done if reload is disabled)
+   * 
+   * @throws IOException Watch Failed
+   */
+  public synchronized void start() throws IOException {
+    if (reloadDelay == 0 || watchService != null) {
+      return;
+    }
+
+    watchService = FileSystems.getDefault().newWatchService();
+    Paths.get(NetworkInformation.DATA_DIR_NAME).register(watchService,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE);
+
+    final WatchService service = watchService;
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        watch(service);
+      }
+    }, "Network Information Watcher");
+    thread.setDaemon(true);
+    thread.start();
+    logger.info("Watching network information files. (reload delay={}msec)", reloadDelay);
+  }
+
+  /**
+   * Stop watching the network information files.
+   */
+  public synchronized void stop() {
+    if (watchService == null) {
+      return;
+    }
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      logger.warn("", e);
+    }
+    watchService = null;
+  }
+
+  /**
+   * Get the network information currently used.
+   * 
+   * @return The network information
+   */
+  public NetworkInformation getNetworkInformation() {
+    return networkInformation;
+  }
+
+  /**
+   * Watch the network information files until the watch service is closed.
+   * 
+   * @param service The watch service
+   */
+  private void watch(WatchService service) {
+    try {
+      while (true) {
+        if (!pollChanges(service.take())) {
+          continue;
+        }
+
+        // Wait until the files are quiet
+        while (true) {
+          WatchKey watchKey = service.poll(reloadDelay, TimeUnit.MILLISECONDS);
+          if (watchKey == null) {
+            break;
+          }
+          pollChanges(watchKey);
+        }
+
+        reload();
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      logger.info("Network information watcher is stopped.");
+    }
+  }
+
+  /**
+   * Poll the events of a watch key.
+   * 
+   * @param watchKey The watch key
+   * @return true: if any network information file is changed
+   *         false: otherwise (e.g. the snapshot file)
+   */
+  private boolean pollChanges(WatchKey watchKey) {
+    boolean changed = false;
+    for (WatchEvent<?> event : watchKey.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        changed = true;
+        continue;
+      }
+      Path path = (Path) event.context();
+      if (NetworkInformation.getFileNames().contains(path.getFileName().toString())) {
+        logger.debug("Network information file is changed: {} {}", event.kind(), path);
+        changed = true;
+      }
+    }
+    watchKey.reset();
+    return changed;
+  }
+
+  /**
+   * Reload the network information files, and notify the listener of the changed NEs.
+   */
+  private void reload() {
+    NetworkInformation reloadedInformation = new NetworkInformation();
+    try {
+      reloadedInformation.readNetworkInformationFiles();
+    } catch (Exception e) {
+      logger.error("Reload Failed. The current network information is kept.", e);
+      return;
+    }
+
+    NetworkInformationDiff diff =
+        NetworkInformationDiff.create(networkInformation, reloadedInformation);
+    networkInformation = reloadedInformation;
+    if (diff.isEmpty()) {
+      logger.info("Network information is reloaded. No NE is changed.");
+      return;
+    }
+
+    logger.info("Network information is reloaded. {}", diff);
+    try {
+      listener.networkInformationChanged(reloadedInformation, diff);
+    } catch (Exception e) {
+      logger.error("", e);
+    }
+  }
+}
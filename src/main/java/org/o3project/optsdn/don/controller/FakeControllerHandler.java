@@ -0,0 +1,324 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.controller;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.Timer;
+import org.jboss.netty.util.TimerTask;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFeaturesReply;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFPortDesc;
+import org.projectfloodlight.openflow.protocol.OFPortDescStatsReply;
+import org.projectfloodlight.openflow.protocol.OFStatsReplyFlags;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.protocol.instruction.OFInstruction;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OduSigid;
+import org.projectfloodlight.openflow.types.OduSigtype;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session handler of the fake OpenFlow controller.
+ * - HELLO, FEATURES REQUEST and PORT_DESC Multipart Request to get the ports of the NE
+ * - Send bursts of Flowmods (ADD/DELETE_STRICT) followed by a Barrier Request
+ * - Record the time from Flowmod send to Barrier Reply as the latency
+ *   (DON replies to Barrier Request after all the previous Flowmods are proceeded)
+ * - Close the session after all the Flowmods are confirmed
+ */
+public class FakeControllerHandler extends SimpleChannelHandler {
+  public static Logger logger = LoggerFactory.getLogger(FakeControllerHandler.class);
+
+  /* The ports used if the NE has no OpenFlow port. */
+  private static final int DEFAULT_PORT_COUNT = 64;
+
+  private static final int FLOWMOD_PRIORITY = 100;
+
+  private final OFFactory factory;
+  private final FlowmodWorkload workload;
+  private final Timer timer;
+  private final LatencyRecorder latencyRecorder;
+  private final ChannelGroup channelGroup;
+  private final Random random = new Random();
+
+  private long dpid;
+  private final List<OFPort> portList = new ArrayList<OFPort>();
+
+  /* The matches of the added flow entries. (for DELETE_STRICT) */
+  private final List<Match> installedMatchList = new ArrayList<Match>();
+
+  /* The bursts not confirmed. (Key:XID of Barrier Request) */
+  private final Map<Long, Burst> burstMap = new HashMap<Long, Burst>();
+
+  private long xid;
+  private int sentCount;
+  private int oduSigidCount;
+
+  /**
+   * Constructor.
+   * 
+   * @param factory          OpenFlow factory
+   * @param workload         Flowmod workload
+   * @param timer            The timer to send bursts
+   * @param latencyRecorder  The recorder shared by all sessions
+   * @param channelGroup     The channels of all sessions
+   */
+  public FakeControllerHandler(OFFactory factory, FlowmodWorkload workload, Timer timer,
+      LatencyRecorder latencyRecorder, ChannelGroup channelGroup) {
+    super();
+    this.factory = factory;
+    this.workload = workload;
+    this.timer = timer;
+    this.latencyRecorder = latencyRecorder;
+    this.channelGroup = channelGroup;
+  }
+
+  /**
+   * @see org.jboss.netty.channel.SimpleChannelHandler#channelConnected(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+   */
+  @Override
+  public void channelConnected(ChannelHandlerContext ctx, ChannelStateEvent event)
+      throws Exception {
+    channelGroup.add(ctx.getChannel());
+    ctx.getChannel().write(factory.buildHello()
+        .setXid(nextXid())
+        .build());
+  }
+
+  /**
+   * @see org.jboss.netty.channel.SimpleChannelHandler#exceptionCaught(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ExceptionEvent)
+   */
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent event)
+      throws Exception {
+    logger.error("", event.getCause());
+    ctx.getChannel().close();
+  }
+
+  /**
+   * @see org.jboss.netty.channel.SimpleChannelHandler#messageReceived(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.MessageEvent)
+   */
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent event)
+      throws Exception {
+    Channel channel = ctx.getChannel();
+    OFMessage ofMessage = (OFMessage) event.getMessage();
+    switch (ofMessage.getType()) {
+      case HELLO:
+        channel.write(factory.buildFeaturesRequest()
+            .setXid(nextXid())
+            .build());
+        break;
+      case ECHO_REQUEST:
+        channel.write(factory.buildEchoReply()
+            .setXid(ofMessage.getXid())
+            .build());
+        break;
+      case FEATURES_REPLY:
+        dpid = ((OFFeaturesReply) ofMessage).getDatapathId().getLong();
+        channel.write(factory.buildPortDescStatsRequest()
+            .setXid(nextXid())
+            .build());
+        break;
+      case STATS_REPLY:
+        if (!(ofMessage instanceof OFPortDescStatsReply)) {
+          break;
+        }
+        OFPortDescStatsReply portDescStatsReply = (OFPortDescStatsReply) ofMessage;
+        for (OFPortDesc portDesc : portDescStatsReply.getEntries()) {
+          portList.add(portDesc.getPortNo());
+        }
+        if (!portDescStatsReply.getFlags().contains(OFStatsReplyFlags.REPLY_MORE)) {
+          startWorkload(channel);
+        }
+        break;
+      case BARRIER_REPLY:
+        proceedBarrierReply(channel, ofMessage.getXid());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Start sending Flowmods after the ports of the NE are known.
+   * 
+   * @param channel The session
+   */
+  private synchronized void startWorkload(Channel channel) {
+    if (portList.size() < 2) {
+      portList.clear();
+      for (int portNumber = 1; portNumber <= DEFAULT_PORT_COUNT; portNumber++) {
+        portList.add(OFPort.of(portNumber));
+      }
+    }
+    logger.info("Start Flowmod workload. (DPID={}, ports={})", dpid, portList.size());
+    sendBurst(channel);
+  }
+
+  /**
+   * Send a burst of Flowmods followed by a Barrier Request,
+   * and schedule the next burst if the rate is limited.
+   * 
+   * @param channel The session
+   */
+  private synchronized void sendBurst(final Channel channel) {
+    if (!channel.isConnected() || sentCount >= workload.getFlowmodCount()) {
+      return;
+    }
+
+    int size = Math.min(workload.getBurstSize(), workload.getFlowmodCount() - sentCount);
+    List<OFMessage> messageList = new ArrayList<OFMessage>(size + 1);
+    for (int i = 0; i < size; i++) {
+      messageList.add(createFlowmod());
+    }
+    long barrierXid = nextXid();
+    messageList.add(factory.buildBarrierRequest()
+        .setXid(barrierXid)
+        .build());
+
+    sentCount += size;
+    burstMap.put(barrierXid, new Burst(System.nanoTime(), size));
+    channel.write(messageList);
+
+    long burstInterval = workload.getBurstInterval();
+    if (burstInterval > 0) {
+      timer.newTimeout(new TimerTask() {
+        @Override
+        public void run(Timeout timeout) {
+          sendBurst(channel);
+        }
+      }, burstInterval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Create a Flowmod. (DELETE_STRICT at the delete ratio, ADD otherwise)
+   * 
+   * @return The Flowmod
+   */
+  private OFMessage createFlowmod() {
+    if (!installedMatchList.isEmpty() && random.nextInt(100) < workload.getDeleteRatio()) {
+      Match match = installedMatchList.remove(random.nextInt(installedMatchList.size()));
+      return factory.buildFlowDeleteStrict()
+          .setXid(nextXid())
+          .setPriority(FLOWMOD_PRIORITY)
+          .setMatch(match)
+          .build();
+    }
+
+    int inIndex = random.nextInt(portList.size());
+    int outIndex = (inIndex + 1 + random.nextInt(portList.size() - 1)) % portList.size();
+    List<OduSigtype> oduSigtypeList = workload.getOduSigtypeList();
+    OduSigtype oduSigtype = oduSigtypeList.get(random.nextInt(oduSigtypeList.size()));
+    oduSigidCount++;
+    OduSigid oduSigid = OduSigid.of((short) (oduSigidCount % Short.MAX_VALUE + 1), (short) 1,
+        (short) 0x01);
+
+    Match match = factory.buildMatch()
+        .setExact(MatchField.IN_PORT, portList.get(inIndex))
+        .setExact(MatchField.ODU_SIGTYPE, oduSigtype)
+        .setExact(MatchField.ODU_SIGID, oduSigid)
+        .build();
+    installedMatchList.add(match);
+
+    List<OFAction> actionList = Arrays.<OFAction>asList(
+        factory.actions().setField(factory.oxms().oduSigtype(oduSigtype)),
+        factory.actions().setField(factory.oxms().oduSigid(oduSigid)),
+        factory.actions().output(portList.get(outIndex), 0));
+    List<OFInstruction> instructionList = Collections.<OFInstruction>singletonList(
+        factory.instructions().writeActions(actionList));
+    return factory.buildFlowAdd()
+        .setXid(nextXid())
+        .setPriority(FLOWMOD_PRIORITY)
+        .setMatch(match)
+        .setInstructions(instructionList)
+        .build();
+  }
+
+  /**
+   * Record the latency of the confirmed burst,
+   * and send the next burst or close the session.
+   * 
+   * @param channel     The session
+   * @param barrierXid  The XID of Barrier Reply
+   */
+  private synchronized void proceedBarrierReply(Channel channel, long barrierXid) {
+    Burst burst = burstMap.remove(barrierXid);
+    if (burst == null) {
+      return;
+    }
+    latencyRecorder.record(System.nanoTime() - burst.sentTime, burst.size);
+
+    if (sentCount >= workload.getFlowmodCount()) {
+      if (burstMap.isEmpty()) {
+        logger.info("Flowmod workload is done. (DPID={}, Flowmods={})", dpid, sentCount);
+        channel.close();
+      }
+    } else if (workload.getBurstInterval() == 0) {
+      sendBurst(channel);
+    }
+  }
+
+  /**
+   * Get the next XID.
+   * 
+   * @return XID
+   */
+  private synchronized long nextXid() {
+    xid = (xid + 1) & 0xffffffffL;
+    return xid;
+  }
+
+  /**
+   * Flowmods sent at once.
+   */
+  private static class Burst {
+    private final long sentTime;
+    private final int size;
+
+    /**
+     * Constructor.
+     * 
+     * @param sentTime  Sent time (System.nanoTime())
+     * @param size      The number of Flowmods
+     */
+    private Burst(long sentTime, int size) {
+      this.sentTime = sentTime;
+      this.size = size;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.controller;
+
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.channel.group.DefaultChannelGroup;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.jboss.netty.util.Timer;
+import org.o3project.optsdn.don.openflow.OFMessageDecoder;
+import org.o3project.optsdn.don.openflow.OFMessageEncoder;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fake OpenFlow controller for load and latency testing of DON without RYU-OE.
+ * - Accept DON sessions on the port and send the Flowmod workload to each session
+ * - Log the latency summary of all sessions when stopped
+ */
+public class FakeOpenFlowController {
+  public static Logger logger = LoggerFactory.getLogger(FakeOpenFlowController.class);
+
+  private final int portNumber;
+  private final FlowmodWorkload workload;
+  private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+
+  /* The channels of the server and all sessions. */
+  private final ChannelGroup channelGroup = new DefaultChannelGroup("FakeController");
+
+  private ServerBootstrap bootstrap;
+  private Timer timer;
+
+  /**
+   * Constructor.
+   * 
+   * @param portNumber  TCP port number to listen
+   * @param workload    Flowmod workload per session
+   */
+  public FakeOpenFlowController(int portNumber, FlowmodWorkload workload) {
+    super();
+    this.portNumber = portNumber;
+    this.workload = workload;
+  }
+
+  /**
+   * Start listening.
+   */
+  public synchronized void start() {
+    final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+    timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS);
+    bootstrap = new ServerBootstrap(new NioServerSocketChannelFactory(
+        Executors.newCachedThreadPool(), Executors.newCachedThreadPool()));
+    bootstrap.setOption("child.tcpNoDelay", true);
+    bootstrap.setOption("reuseAddress", true);
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      @Override
+      public ChannelPipeline getPipeline() throws Exception {
+        ChannelPipeline pipeline = Channels.pipeline();
+        pipeline.addLast("decoder", new OFMessageDecoder());
+        pipeline.addLast("encoder", new OFMessageEncoder());
+        pipeline.addLast("handler", new FakeControllerHandler(
+            factory, workload, timer, latencyRecorder, channelGroup));
+        return pipeline;
+      }
+    });
+
+    channelGroup.add(bootstrap.bind(new InetSocketAddress(portNumber)));
+    logger.info("Fake OpenFlow controller is listening on {}. (Flowmods={}, rate={}/s, burst={},"
+        + " delete={}%)", portNumber, workload.getFlowmodCount(), workload.getFlowmodRate(),
+        workload.getBurstSize(), workload.getDeleteRatio());
+  }
+
+  /**
+   * Close all sessions, and log the latency summary.
+   */
+  public synchronized void stop() {
+    if (bootstrap == null) {
+      return;
+    }
+    channelGroup.close().awaitUninterruptibly();
+    bootstrap.releaseExternalResources();
+    timer.stop();
+    bootstrap = null;
+    latencyRecorder.report();
+  }
+
+  /**
+   * Get the latency recorder of all sessions.
+   * 
+   * @return The latency recorder
+   */
+  public LatencyRecorder getLatencyRecorder() {
+    return latencyRecorder;
+  }
+}
@@ -0,0 +1,137 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.controller;
+
+import org.o3project.optsdn.don.util.Config;
+import org.projectfloodlight.openflow.types.OduSigtype;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flowmod workload of the fake OpenFlow controller per session.
+ * (i.e. "fakeController*" in config.properties file)
+ */
+public class FlowmodWorkload {
+  /* The number of Flowmods to send. */
+  private int flowmodCount;
+
+  /* The number of Flowmods per second. (0: send the next burst after the previous one is done) */
+  private int flowmodRate;
+
+  /* The number of Flowmods sent at once. (Followed by a Barrier Request) */
+  private int burstSize;
+
+  /* The ratio of DELETE_STRICT in Flowmods[%]. (The others are ADD) */
+  private int deleteRatio;
+
+  /* The ODU SIGTYPEs of Match and Actions. */
+  private List<OduSigtype> oduSigtypeList = new ArrayList<OduSigtype>();
+
+  /**
+   * Constructor.
+   * (Read the workload from config.properties file.)
+   */
+  public FlowmodWorkload() {
+    super();
+    flowmodCount = getProperty("fakeControllerFlowmodCount", 1000);
+    flowmodRate = getProperty("fakeControllerFlowmodRate", 100);
+    burstSize = Math.max(getProperty("fakeControllerBurstSize", 10), 1);
+    deleteRatio = getProperty("fakeControllerDeleteRatio", 30);
+
+    try {
+      for (String oduSigtype : Config.getProperty("fakeControllerOduSigtypes").split(",")) {
+        oduSigtypeList.add(OduSigtype.of(Byte.valueOf(oduSigtype.trim())));
+      }
+    } catch (Exception e) {
+      oduSigtypeList = Collections.singletonList(OduSigtype.of((byte) 1));
+    }
+  }
+
+  /**
+   * Get the integer property from config.properties file.
+   * 
+   * @param key           Property Key
+   * @param defaultValue  The default value
+   * @return The value
+   */
+  private static int getProperty(String key, int defaultValue) {
+    try {
+      return Integer.valueOf(Config.getProperty(key));
+    } catch (Exception e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Get the interval of bursts.
+   * 
+   * @return The interval[milliseconds] (0: send the next burst after the previous one is done)
+   */
+  public long getBurstInterval() {
+    if (flowmodRate <= 0) {
+      return 0;
+    }
+    return Math.max(burstSize * 1000L / flowmodRate, 1);
+  }
+
+  /**
+   * Get the number of Flowmods to send.
+   * 
+   * @return The number of Flowmods
+   */
+  public int getFlowmodCount() {
+    return flowmodCount;
+  }
+
+  /**
+   * Get the number of Flowmods per second.
+   * 
+   * @return The number of Flowmods per second (0: not limited)
+   */
+  public int getFlowmodRate() {
+    return flowmodRate;
+  }
+
+  /**
+   * Get the number of Flowmods sent at once.
+   * 
+   * @return The burst size
+   */
+  public int getBurstSize() {
+    return burstSize;
+  }
+
+  /**
+   * Get the ratio of DELETE_STRICT in Flowmods.
+   * 
+   * @return The ratio[%]
+   */
+  public int getDeleteRatio() {
+    return deleteRatio;
+  }
+
+  /**
+   * Get the ODU SIGTYPEs of Match and Actions.
+   * 
+   * @return The ODU SIGTYPEs
+   */
+  public List<OduSigtype> getOduSigtypeList() {
+    return oduSigtypeList;
+  }
+}
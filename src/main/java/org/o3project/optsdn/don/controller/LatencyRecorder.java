@@ -0,0 +1,103 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record the time from Flowmod send to DON state update of all sessions.
+ */
+public class LatencyRecorder {
+  public static Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+
+  /* The latencies[microseconds]. (Valid up to latencyCount) */
+  private long[] latencies = new long[1024];
+  private int latencyCount;
+
+  /* The time of the first/last record. (System.nanoTime()) */
+  private long firstTime;
+  private long lastTime;
+
+  /**
+   * Record the latency of Flowmods.
+   * 
+   * @param latency The latency[nanoseconds]
+   * @param count   The number of Flowmods that have the latency
+   */
+  public synchronized void record(long latency, int count) {
+    long now = System.nanoTime();
+    if (latencyCount == 0) {
+      firstTime = now - latency;
+    }
+    lastTime = now;
+
+    if (latencyCount + count > latencies.length) {
+      latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, latencyCount + count));
+    }
+    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latency);
+    Arrays.fill(latencies, latencyCount, latencyCount + count, latencyMicros);
+    latencyCount += count;
+  }
+
+  /**
+   * Get the number of recorded Flowmods.
+   * 
+   * @return The number of Flowmods
+   */
+  public synchronized int getCount() {
+    return latencyCount;
+  }
+
+  /**
+   * Log the summary of the latencies.
+   */
+  public synchronized void report() {
+    if (latencyCount == 0) {
+      logger.info("Flowmod latency: no Flowmod is confirmed.");
+      return;
+    }
+    long[] sorted = Arrays.copyOf(latencies, latencyCount);
+    Arrays.sort(sorted);
+    long total = 0;
+    for (long latency : sorted) {
+      total += latency;
+    }
+    double seconds = (lastTime - firstTime) / (double) TimeUnit.SECONDS.toNanos(1);
+
+    logger.info("Flowmod latency[us]: count={}, min={}, avg={}, p50={}, p90={}, p99={}, max={}",
+        latencyCount, sorted[0], total / latencyCount,
+        sorted[percentileIndex(50)], sorted[percentileIndex(90)], sorted[percentileIndex(99)],
+        sorted[latencyCount - 1]);
+    logger.info("Flowmod throughput: {} Flowmods/s",
+        seconds > 0 ? String.format("%.1f", latencyCount / seconds) : "-");
+  }
+
+  /**
+   * Get the index of the percentile in the sorted latencies.
+   * 
+   * @param percentile The percentile (0-100)
+   * @return The index
+   */
+  private int percentileIndex(double percentile) {
+    int index = (int) Math.ceil(percentile / 100 * latencyCount) - 1;
+    return Math.min(Math.max(index, 0), latencyCount - 1);
+  }
+}
@@ -16,39 +16,74 @@
 
 package org.o3project.optsdn.don.frame;
 
+import org.jboss.netty.channel.ChannelFuture;
 import org.o3project.optsdn.don.NetworkInformation;
+import org.o3project.optsdn.don.NetworkInformationDiff;
+import org.o3project.optsdn.don.NetworkInformationListener;
 import org.o3project.optsdn.don.nwc.Port;
+import org.o3project.optsdn.don.openflow.ConnectorToOpenFlowController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Panel;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import javax.swing.AbstractAction;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.ImageIcon;
-import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSeparator;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * Main frame.
  */
-public class MainFrame extends JFrame {
+public class MainFrame extends JFrame implements NetworkInformationListener {
   public static Logger logger = LoggerFactory.getLogger(MainFrame.class);
 
+  /* The action key for displaying NE frame of the selected row. */
+  private static final String OPEN_NE_ACTION = "openNe";
+
+  /* The rows of the NE list. (Key:NE ID) */
+  private final Map<String, NeListEntry> neListEntryMap = new TreeMap<String, NeListEntry>();
+
+  /* The list model of the NE list. */
+  private final NeListModel neListModel = new NeListModel();
+
+  /* The NE list. (Only the visible rows are rendered) */
+  private final JList<NeListEntry> neList = new JList<NeListEntry>(neListModel);
+
+  private final NeListCellRenderer neListCellRenderer = new NeListCellRenderer();
+
   /**
    * Constructor.
    * 
@@ -74,6 +109,7 @@ public class MainFrame extends JFrame {
 
     // NE List
     fixedPanel.add(new JLabel("NE List"));
+    fixedPanel.add(createNeSearchPanel());
     Panel variablePanel = new Panel();
     variablePanel.setLayout(new BoxLayout(variablePanel, BoxLayout.Y_AXIS));
     variablePanel.add(createNeListPane(networkInformation));
@@ -101,6 +137,7 @@ public class MainFrame extends JFrame {
       public void windowClosing(WindowEvent event) {
         super.windowClosing(event);
         logger.info("Closing DON.");
+        ConnectorToOpenFlowController.releaseSharedResources();
       }
     });
   }
@@ -122,129 +159,231 @@ public class MainFrame extends JFrame {
   }
 
   /**
-   * Create NE List Pane.
+   * Replace the rows of the NEs changed by the network information reload.
+   * - The NE frames of removed or changed NEs are released
+   * - The rows of added or changed NEs are created
+   * - Changed NEs that were connected are reconnected
    * 
-   * @param networkInformation Network Information
-   * @return NE List Pane (scalable).
-   * @throws Exception Network Information is incorrect
+   * @see org.o3project.optsdn.don.NetworkInformationListener#networkInformationChanged(
+   *     org.o3project.optsdn.don.NetworkInformation,
+   *     org.o3project.optsdn.don.NetworkInformationDiff)
    */
-  private JScrollPane createNeListPane(NetworkInformation networkInformation) throws Exception {
-    JPanel neListPanel = new JPanel();
-    neListPanel.setLayout(new BoxLayout(neListPanel, BoxLayout.Y_AXIS));
+  @Override
+  public void networkInformationChanged(
+      final NetworkInformation networkInformation, final NetworkInformationDiff diff) {
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        updateNeList(networkInformation, diff);
+      }
+    });
+  }
 
-    for (String neId : networkInformation.getNeIdSet()) {
+  /**
+   * Update NE List.
+   * 
+   * @param networkInformation The reloaded network information
+   * @param diff               The added, removed and changed NEs
+   */
+  private void updateNeList(NetworkInformation networkInformation, NetworkInformationDiff diff) {
+    // The changed NEs that were connected (Value:the future of closing the connection)
+    Map<String, ChannelFuture> reconnectedNeMap = new HashMap<String, ChannelFuture>();
+    // The changed NEs whose NE frame was displayed
+    Set<String> visibleNeIdSet = new HashSet<String>();
+
+    Set<String> releasedNeIdSet = new TreeSet<String>(diff.getRemovedNeIds());
+    releasedNeIdSet.addAll(diff.getChangedNeIds());
+    for (String neId : releasedNeIdSet) {
+      NeListEntry entry = neListEntryMap.remove(neId);
+      if (entry == null) {
+        continue;
+      }
+      boolean wasConnected = entry.isConnected();
+      if (entry.isFrameVisible()) {
+        visibleNeIdSet.add(neId);
+      }
+      ChannelFuture closeFuture = entry.release();
+      if (wasConnected && diff.getChangedNeIds().contains(neId)) {
+        reconnectedNeMap.put(neId, closeFuture);
+      }
+    }
 
-      List<List<Port>> omsConnectionInfoList =
-          networkInformation.getOmsConnectionInfoListMap().get(neId);
-      if (omsConnectionInfoList == null) {
-        omsConnectionInfoList = new ArrayList<List<Port>>();
-        logger.warn("OMS connections of " + neId + " are not found.");
+    Set<String> createdNeIdSet = new TreeSet<String>(diff.getAddedNeIds());
+    createdNeIdSet.addAll(diff.getChangedNeIds());
+    createdNeIdSet.retainAll(networkInformation.getNeIdSet());
+    for (String neId : createdNeIdSet) {
+      try {
+        neListEntryMap.put(neId, createNeListEntry(networkInformation, neId));
+      } catch (Exception e) {
+        logger.error(neId + " is not added to NE List.", e);
       }
+    }
+
+    neListModel.setEntries(neListEntryMap.values());
+    updateNeListCellSize();
 
-      Long dpid = networkInformation.getDpidMap().get(neId);
-      if (dpid == null) {
-        throw new Exception("DPID of " + neId + " is not found.");
+    for (String neId : diff.getChangedNeIds()) {
+      NeListEntry entry = neListEntryMap.get(neId);
+      if (entry == null) {
+        continue;
       }
-      String neTitle = neId + "(DPID=" + dpid + ")";
+      boolean visible = visibleNeIdSet.contains(neId);
+      if (reconnectedNeMap.containsKey(neId)) {
+        entry.reconnect(reconnectedNeMap.get(neId), visible);
+      } else if (visible) {
+        entry.open();
+      }
+    }
+  }
 
-      List<Port> portList =
-          Port.searchPorts(networkInformation.getPortSet(), neId, null, null);
+  /**
+   * Create the search field of NE List.
+   * (The rows are filtered by the substring of NE ID or DP ID while typing)
+   * 
+   * @return The panel that displays the search field
+   */
+  private JPanel createNeSearchPanel() {
+    final JTextField searchField = new JTextField();
+    searchField.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent event) {
+        neListModel.setFilterText(searchField.getText());
+      }
 
-      String ptId = networkInformation.getNePtMap().get(neId);
-      if (ptId != null) {
-        portList.addAll(Port.searchPorts(networkInformation.getPortSet(), ptId, null, null));
+      @Override
+      public void removeUpdate(DocumentEvent event) {
+        neListModel.setFilterText(searchField.getText());
       }
 
-      List<List<Port>> linkList = networkInformation.getLinkMap().get(neId);
-      if (linkList == null) {
-        linkList = new ArrayList<List<Port>>();
-        logger.warn("Links of " + neId + " are not found.");
+      @Override
+      public void changedUpdate(DocumentEvent event) {
+        neListModel.setFilterText(searchField.getText());
       }
+    });
+
+    JPanel searchPanel = new JPanel();
+    searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.X_AXIS));
+    searchPanel.add(new JLabel("Search: "));
+    searchPanel.add(searchField);
+    searchPanel.setMaximumSize(
+        new Dimension(Short.MAX_VALUE, searchPanel.getPreferredSize().height));
+    return searchPanel;
+  }
 
-      JButton displayNeStatusButton = new JButton();
-      displayNeStatusButton.addActionListener(
-          new NeViewActionListener(
-              neTitle,
-              portList,
-              linkList,
-              omsConnectionInfoList,
-              ptId,
-              dpid,
-              displayNeStatusButton
-          )
-      );
-      displayNeStatusButton.setText(neTitle);
-
-      displayNeStatusButton.setMaximumSize(
-          new Dimension(Short.MAX_VALUE, displayNeStatusButton.getMaximumSize().height)
-      );
-      neListPanel.add(displayNeStatusButton);
+  /**
+   * Create NE List Pane.
+   * 
+   * @param networkInformation Network Information
+   * @return NE List Pane (scalable).
+   * @throws Exception Network Information is incorrect
+   */
+  private JScrollPane createNeListPane(NetworkInformation networkInformation) throws Exception {
+    for (String neId : networkInformation.getNeIdSet()) {
+      neListEntryMap.put(neId, createNeListEntry(networkInformation, neId));
     }
+    neListModel.setEntries(neListEntryMap.values());
+
+    neList.setCellRenderer(neListCellRenderer);
+    neList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    updateNeListCellSize();
+
+    // Display NE frame if a row is clicked or Enter is pressed
+    neList.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent event) {
+        int index = neList.locationToIndex(event.getPoint());
+        if (index >= 0 && neList.getCellBounds(index, index).contains(event.getPoint())) {
+          neListModel.getElementAt(index).open();
+        }
+      }
+    });
+    neList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), OPEN_NE_ACTION);
+    neList.getActionMap().put(OPEN_NE_ACTION, new AbstractAction() {
+
+      @Override
+      public void actionPerformed(ActionEvent event) {
+        NeListEntry entry = neList.getSelectedValue();
+        if (entry != null) {
+          entry.open();
+        }
+      }
+    });
+
     JScrollPane neListScrollPane = new JScrollPane();
-    neListScrollPane.setPreferredSize(new Dimension(neListPanel.getPreferredSize().width, 150));
-    neListScrollPane.getViewport().setView(neListPanel);
+    neListScrollPane.setPreferredSize(new Dimension(neList.getPreferredSize().width, 150));
+    neListScrollPane.getViewport().setView(neList);
     return neListScrollPane;
   }
 
   /**
-   * Action Listener for NE button.
+   * Fix the cell size of NE List to the longest row.
+   * (The rows are not measured one by one, and the rows not visible are not rendered)
    */
-  private class NeViewActionListener implements ActionListener {
-    private String neTitle;
-    private List<Port> portList;
-    private List<List<Port>> linkList;
-    private List<List<Port>> omsConnectionInfoList;
-    private String ptId;
-    private long dpid;
-    private NeFrame neFrame;
-    private JButton displayNeStatusButton;
+  private void updateNeListCellSize() {
+    String longestText = "";
+    for (NeListEntry entry : neListModel.getEntries()) {
+      String text = entry.getDisplayText(true);
+      if (text.length() > longestText.length()) {
+        longestText = text;
+      }
+    }
+    Dimension cellSize = neListCellRenderer.getListCellRendererComponent(
+        neList, longestText, 0, false, false).getPreferredSize();
+    neList.setFixedCellWidth(cellSize.width);
+    neList.setFixedCellHeight(cellSize.height);
+  }
 
-    /**
-     * Constructor.
-     * 
-     * @param neTitle                NE frame title
-     * @param portList               Ports
-     * @param linkList               Links
-     * @param omsConnectionInfoList  OMS connections
-     * @param ptId                   PT ID
-     * @param dpid                   Datapath ID
-     * @param displayNeStatusButton  NE button
-     */
-    private NeViewActionListener(
-        String neTitle, List<Port> portList, List<List<Port>> linkList,
-        List<List<Port>> omsConnectionInfoList,
-        String ptId, long dpid, JButton displayNeStatusButton) {
-
-      this.neTitle = neTitle;
-      this.portList = portList;
-      this.linkList = linkList;
-      this.omsConnectionInfoList = omsConnectionInfoList;
-      this.ptId = ptId;
-      this.dpid = dpid;
-      this.displayNeStatusButton = displayNeStatusButton;
+  /**
+   * Create a row of NE List.
+   * 
+   * @param networkInformation Network Information
+   * @param neId               The NE ID
+   * @return The row
+   * @throws Exception Network Information is incorrect
+   */
+  private NeListEntry createNeListEntry(
+      NetworkInformation networkInformation, String neId) throws Exception {
+    List<List<Port>> omsConnectionInfoList =
+        networkInformation.getOmsConnectionInfoListMap().get(neId);
+    if (omsConnectionInfoList == null) {
+      omsConnectionInfoList = new ArrayList<List<Port>>();
+      logger.warn("OMS connections of " + neId + " are not found.");
     }
 
+    Long dpid = networkInformation.getDpidMap().get(neId);
+    if (dpid == null) {
+      throw new Exception("DPID of " + neId + " is not found.");
+    }
+
+    List<Port> portList = networkInformation.getNePorts(neId);
+    String ptId = networkInformation.getNePtMap().get(neId);
+
+    List<List<Port>> linkList = networkInformation.getLinkMap().get(neId);
+    if (linkList == null) {
+      linkList = new ArrayList<List<Port>>();
+      logger.warn("Links of " + neId + " are not found.");
+    }
+
+    return new NeListEntry(neId, portList, linkList, omsConnectionInfoList, ptId, dpid);
+  }
+
+  /**
+   * Cell renderer of NE List.
+   * (NE frame title with the connection state)
+   */
+  private static class NeListCellRenderer extends DefaultListCellRenderer {
     /**
-     * Display NE frame if NE button is clicked.
-     * Forefront the frame if the frame is already exist.
-     * 
-     * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+     * @see javax.swing.DefaultListCellRenderer#getListCellRendererComponent(
+     *     javax.swing.JList, java.lang.Object, int, boolean, boolean)
      */
     @Override
-    public void actionPerformed(ActionEvent event) {
-      if (neFrame == null) {
-        neFrame = new NeFrame(
-            neTitle, portList, linkList, omsConnectionInfoList, ptId, dpid, displayNeStatusButton
-        );
-        neFrame.setLocationByPlatform(true);
-        neFrame.setVisible(true);
-      } else {
-        if (neFrame.isVisible()) {
-          neFrame.toFront();
-        } else {
-          neFrame.setVisible(true);
-        }
+    public Component getListCellRendererComponent(
+        JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+      Object text = value;
+      if (value instanceof NeListEntry) {
+        text = ((NeListEntry) value).getDisplayText();
       }
+      return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
     }
   }
 }
@@ -17,9 +17,15 @@
 package org.o3project.optsdn.don.frame;
 
 import org.apache.commons.lang3.math.NumberUtils;
+import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFuture;
+import org.o3project.optsdn.don.nwc.FlowState;
+import org.o3project.optsdn.don.nwc.Layer;
 import org.o3project.optsdn.don.nwc.Port;
+import org.o3project.optsdn.don.nwc.PortIndex;
+import org.o3project.optsdn.don.nwc.PortType;
 import org.o3project.optsdn.don.openflow.ConnectorToOpenFlowController;
+import org.o3project.optsdn.don.openflow.NeStatusListener;
 import org.o3project.optsdn.don.util.AntiAliasingPanel;
 import org.o3project.optsdn.don.util.Config;
 import org.o3project.optsdn.don.util.Constants;
@@ -34,18 +40,22 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
 import java.awt.Stroke;
+import java.awt.Transparency;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
@@ -57,6 +67,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
@@ -64,11 +75,12 @@ import javax.swing.table.TableColumn;
 /**
  * NE frame.
  */
-public class NeFrame extends JFrame {
+public class NeFrame extends JFrame implements NeStatusListener {
   public static Logger logger = LoggerFactory.getLogger(NeFrame.class);
 
   private static final int TABLE_HEIGHT = 100;
   private static final String OFPORT_NOTFOUND = "E";
+  private static final int DEFAULT_FLOW_HISTORY_SIZE = 100;
 
   private String neTitle;
   private List<Port> portList;
@@ -77,23 +89,38 @@ public class NeFrame extends JFrame {
   private List<List<Port>> omsConnectionInfoList;
   private String ptId;
   private long dpid;
-  private JButton displayNeStatusButton;
+  private NeListEntry neListEntry;
   private JButton connectButton;
 
+  /* Connected to OpenFlow controller or not. */
+  private final AtomicBoolean connected = new AtomicBoolean();
+
+  /* The connection to OpenFlow controller. (null if not connected) */
+  private volatile Channel channel;
+
+  /* Released by the network information reload or not. */
+  private volatile boolean released;
+
   /* Flowmod status label. */
   private JTextArea flowmodStatusLabel;
 
-  /*
-   * The List for new links.
-   * (Remove a link from the List after 10 seconds.)
-   */
-  private List<List<Integer>> linkListNew;
+  /* Flow state (new links and old links created by Flowmod). */
+  private FlowState flowState;
 
-  /*
-   * The Set for old links.
-   * (Removed link from the Set of new links)
-   */
-  private Set<List<Integer>> linkSetOld;
+  /* The Flowmod status text not displayed yet. (null if displayed) */
+  private final AtomicReference<String> pendingFlowmodText = new AtomicReference<String>();
+
+  /* Display the pending Flowmod status text and repaint. (Run by RepaintScheduler on the EDT) */
+  private final Runnable renderTask = new Runnable() {
+    @Override
+    public void run() {
+      String flowmodText = pendingFlowmodText.getAndSet(null);
+      if (flowmodText != null) {
+        flowmodStatusLabel.setText(flowmodText);
+      }
+      repaint();
+    }
+  };
 
   private final Color ptColor;
   private final Color neOduColor;
@@ -103,6 +130,7 @@ public class NeFrame extends JFrame {
   private final Color xcColor;
   private final Color flowmodLinkOldColor;
   private final Color flowmodLinkNewColor;
+  private final Color flowmodLinkHistoryColor;
 
   /* Information Model ID Columns. */
   private enum InformationModelIdCols {
@@ -165,7 +193,7 @@ public class NeFrame extends JFrame {
    * @param omsConnectionInfoList  OMS connections
    * @param ptId                   PT ID
    * @param dpid                   Datapath ID
-   * @param displayNeStatusButton  NE button
+   * @param neListEntry            The row of the NE list
    */
   public NeFrame(
       String neTitle,
@@ -174,7 +202,7 @@ public class NeFrame extends JFrame {
       List<List<Port>> omsConnectionInfoList,
       String ptId,
       long dpid,
-      JButton displayNeStatusButton) {
+      NeListEntry neListEntry) {
 
     this.neTitle = neTitle;
 
@@ -189,14 +217,19 @@ public class NeFrame extends JFrame {
     }
 
     this.flowmodStatusLabel = new JTextArea();
-    this.linkListNew = new ArrayList<List<Integer>>();
-    this.linkSetOld = new HashSet<List<Integer>>();
+    int flowHistorySize;
+    try {
+      flowHistorySize = Integer.valueOf(Config.getProperty("flowHistorySize"));
+    } catch (Exception e) {
+      flowHistorySize = DEFAULT_FLOW_HISTORY_SIZE;
+    }
+    this.flowState = new FlowState(dpid, flowHistorySize);
 
     this.linkList = linkList;
     this.omsConnectionInfoList = omsConnectionInfoList;
     this.ptId = ptId;
     this.dpid = dpid;
-    this.displayNeStatusButton = displayNeStatusButton;
+    this.neListEntry = neListEntry;
 
     ptColor = getPropertyColor(
         "ptColorR", "ptColorG", "ptColorB", "ptColorA",
@@ -236,6 +269,13 @@ public class NeFrame extends JFrame {
         "flowmodLinkNewColorA",
         new Color(255, 0, 0, 255));
 
+    flowmodLinkHistoryColor = getPropertyColor(
+        "flowmodLinkHistoryColorR",
+        "flowmodLinkHistoryColorG",
+        "flowmodLinkHistoryColorB",
+        "flowmodLinkHistoryColorA",
+        new Color(192, 192, 192, 64));
+
     createNeFrame();
   }
 
@@ -249,21 +289,92 @@ public class NeFrame extends JFrame {
   }
 
   /**
-   * Get the List for new links.
+   * Display Flowmod message and draw the new link.
    * 
-   * @return The List for new links
+   * @see org.o3project.optsdn.don.openflow.NeStatusListener#flowmodReceived(java.lang.String)
    */
-  public List<List<Integer>> getLinkListNew() {
-    return linkListNew;
+  @Override
+  public void flowmodReceived(String flowmodText) {
+    pendingFlowmodText.set(flowmodText);
+    RepaintScheduler.getInstance().markDirty(renderTask);
+  }
+
+  /**
+   * Draw the link as the old link.
+   * Display Waiting message on Flowmod state if no other Flowmod is highlighted.
+   * 
+   * @see org.o3project.optsdn.don.openflow.NeStatusListener#flowmodExpired(boolean)
+   */
+  @Override
+  public void flowmodExpired(boolean waiting) {
+    if (waiting) {
+      pendingFlowmodText.set(Constants.FLOWMOD_INFO_TEXT_WAITING);
+    }
+
+    RepaintScheduler.getInstance().markDirty(renderTask);
   }
 
   /**
-   * Get the Set for old links.
+   * Display error message and set NE frame to initial status.
    * 
-   * @return The Set for old links
+   * @see org.o3project.optsdn.don.openflow.NeStatusListener#connectionClosed()
+   */
+  @Override
+  public void connectionClosed() {
+    if (!connected.compareAndSet(true, false)) {
+      return;
+    }
+
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        JOptionPane.showMessageDialog(NeFrame.this,
+            neTitle + " is disconnected to OpenFlow controller.",
+            "Error", JOptionPane.ERROR_MESSAGE);
+        setComponentsDefaultStatus();
+      }
+    });
+  }
+
+  /**
+   * Release NE frame.
+   * (for NEs removed or changed by the network information reload)
+   * The connection is closed without error message, and the frame is disposed.
+   * 
+   * @return The future of closing the connection (null if not connected)
+   */
+  public ChannelFuture release() {
+    released = true;
+    connected.set(false);
+    ChannelFuture closeFuture = null;
+    Channel currentChannel = channel;
+    if (currentChannel != null) {
+      closeFuture = currentChannel.close();
+    }
+    dispose();
+    return closeFuture;
+  }
+
+  /**
+   * Connect to OpenFlow controller again.
+   * (for NEs changed by the network information reload, that were connected)
+   * The success message is not displayed.
+   * 
+   * @param closeFuture The future of closing the previous connection (null if none)
+   */
+  public void reconnect(ChannelFuture closeFuture) {
+    connect(closeFuture, false);
+  }
+
+  /**
+   * Set NE frame to initial status.
    */
-  public Set<List<Integer>> getLinkSetOld() {
-    return linkSetOld;
+  private void setComponentsDefaultStatus() {
+    connectButton.setText("Connect");
+    connectButton.setEnabled(true);
+    neListEntry.setConnected(false);
+    pendingFlowmodText.set(null);
+    flowmodStatusLabel.setText(Constants.FLOWMOD_INFO_TEXT_DEFAULT);
   }
 
   /**
@@ -487,7 +598,7 @@ public class NeFrame extends JFrame {
    */
   private JPanel createConnectButtonPanel() {
     connectButton = new JButton("Connect");
-    connectButton.addActionListener(new ConnectToOpenFlowControllerListener(this));
+    connectButton.addActionListener(new ConnectToOpenFlowControllerListener());
     connectButton.setMaximumSize(new Dimension(
         Short.MAX_VALUE,
         connectButton.getMaximumSize().height));
@@ -540,6 +651,7 @@ public class NeFrame extends JFrame {
 
     private final int neWidth;
     private final int xcWidth;
+    private final PortIndex portIndex;
     private Map<Port, Pos> portPosMap;
 
     /**
@@ -548,6 +660,8 @@ public class NeFrame extends JFrame {
     public DrawingNePanel() {
       super();
 
+      portIndex = new PortIndex(portList);
+
       xcWidth = calcNeWidth();
       neWidth = xcWidth + GAP * 2;
 
@@ -584,11 +698,11 @@ public class NeFrame extends JFrame {
      */
     private int calcNeWidth() {
       int[] portCounts = {
-          Port.searchPorts(portList, null, Constants.ETHER, Constants.TTP).size(),
-          Port.searchPorts(portList, null, Constants.ODU, Constants.TTP).size(),
-          Port.searchPorts(portList, null, Constants.ODU, Constants.CTP).size(),
-          Port.searchPorts(portList, null, Constants.OCH, Constants.TTP).size(),
-          Port.searchPorts(portList, null, Constants.OCH, Constants.CTP).size(),
+          portIndex.countPorts(null, Constants.ETHER, Constants.TTP),
+          portIndex.countPorts(null, Constants.ODU, Constants.TTP),
+          portIndex.countPorts(null, Constants.ODU, Constants.CTP),
+          portIndex.countPorts(null, Constants.OCH, Constants.TTP),
+          portIndex.countPorts(null, Constants.OCH, Constants.CTP),
       };
 
       Arrays.sort(portCounts);
@@ -628,7 +742,8 @@ public class NeFrame extends JFrame {
      * @param srcY The Y-coordinate of the layer in NE panel
      */
     private void calculatePortsPos(String layer, String portType, int srcX, int srcY) {
-      List<Port> targetPortList = Port.searchPorts(portList, null, layer, portType);
+      List<Port> targetPortList =
+          new ArrayList<Port>(portIndex.getPorts(null, layer, portType));
 
       // Sort ascending by OpenFlow port ID
       Collections.sort(targetPortList, new PortIdComparator());
@@ -705,14 +820,108 @@ public class NeFrame extends JFrame {
     }
 
     /**
-     * The class that draws BasePanel (without ports) under the PortPanel.
-     * (NE panel is constructed with a BasePanel and a PortPanel)
+     * The panel that caches the static layer as an image.
+     * - The static layer is rendered once, and rendered again only if the panel is resized
+     * - The dynamic layer is drawn upon the cached image on each repaint
      */
-    private class BasePanel extends AntiAliasingPanel {
+    private abstract class CachedLayerPanel extends AntiAliasingPanel {
+      private final boolean antiAliasing;
+      private BufferedImage staticLayerImage;
+
+      /**
+       * Constructor.
+       * 
+       * @param antiAliasing true: draw with anti-aliasing
+       */
+      public CachedLayerPanel(boolean antiAliasing) {
+        super();
+        this.antiAliasing = antiAliasing;
+      }
+
       @Override
       protected void paintComponent(Graphics graphics) {
-        super.paintComponent(graphics);
+        if (antiAliasing) {
+          super.paintComponent(graphics);
+        }
 
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+          return;
+        }
+
+        if (staticLayerImage == null
+            || staticLayerImage.getWidth() != width
+            || staticLayerImage.getHeight() != height) {
+          staticLayerImage = createLayerImage(width, height);
+          Graphics2D imageGraphics = staticLayerImage.createGraphics();
+          try {
+            imageGraphics.setColor(getForeground());
+            imageGraphics.setFont(getFont());
+            if (antiAliasing) {
+              imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                  RenderingHints.VALUE_ANTIALIAS_ON);
+            }
+            paintStaticLayer(imageGraphics);
+          } finally {
+            imageGraphics.dispose();
+          }
+        }
+
+        graphics.drawImage(staticLayerImage, 0, 0, null);
+        paintDynamicLayer(graphics);
+      }
+
+      /**
+       * Create the image for the static layer.
+       * The image compatible with the screen is used if the graphics configuration is available,
+       * so that Java2D can keep it as a managed image.
+       * 
+       * @param width  The width
+       * @param height The height
+       * @return The translucent image
+       */
+      private BufferedImage createLayerImage(int width, int height) {
+        GraphicsConfiguration graphicsConfiguration = getGraphicsConfiguration();
+        if (graphicsConfiguration != null) {
+          return graphicsConfiguration.createCompatibleImage(
+              width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      }
+
+      /**
+       * Draw the static layer. (Called only when the cached image is created)
+       * 
+       * @param graphics The Graphics of the cached image
+       */
+      protected abstract void paintStaticLayer(Graphics graphics);
+
+      /**
+       * Draw the dynamic layer upon the static layer.
+       * 
+       * @param graphics The Graphics of the panel
+       */
+      protected void paintDynamicLayer(Graphics graphics) {
+      }
+    }
+
+    /**
+     * The class that draws BasePanel (without ports) under the PortPanel.
+     * (NE panel is constructed with a BasePanel and a PortPanel)
+     * - Static layer: PT, NE, ODU XC, Lambda SW, legend and links in NE
+     * - Dynamic layer: links created by Flowmod
+     */
+    private class BasePanel extends CachedLayerPanel {
+      /**
+       * Constructor.
+       */
+      public BasePanel() {
+        super(true);
+      }
+
+      @Override
+      protected void paintStaticLayer(Graphics graphics) {
         // PT
         if (ptId != null) {
           drawfillRect(graphics, neWidth, PT_HEIGHT, ptColor, TOP_X, TOP_Y);
@@ -777,14 +986,24 @@ public class NeFrame extends JFrame {
         for (List<Port> link : linkList) {
           drawLink(graphics, link, xcColor);
         }
+      }
+
+      @Override
+      protected void paintDynamicLayer(Graphics graphics) {
+        FlowState.Snapshot flowStateSnapshot = flowState.getSnapshot();
+
+        // draws removed links
+        for (List<Integer> link : flowStateSnapshot.getHistoryLinks()) {
+          drawLinkByPortNumber(graphics, link, flowmodLinkHistoryColor);
+        }
 
         // draws old links
-        for (List<Integer> link : linkSetOld) {
+        for (List<Integer> link : flowStateSnapshot.getOldLinks()) {
           drawLinkByPortNumber(graphics, link, flowmodLinkOldColor);
         }
 
         // draws new links
-        for (List<Integer> link : linkListNew) {
+        for (List<Integer> link : flowStateSnapshot.getNewLinks()) {
           drawLinkByPortNumber(graphics, link, flowmodLinkNewColor);
         }
       }
@@ -794,9 +1013,16 @@ public class NeFrame extends JFrame {
      * The class that draws PortPanel upon the BasePanel.
      * (NE panel is constructed with a BasePanel and a PortPanel)
      */
-    private class PortPanel extends AntiAliasingPanel {
+    private class PortPanel extends CachedLayerPanel {
+      /**
+       * Constructor.
+       */
+      public PortPanel() {
+        super(false);
+      }
+
       @Override
-      protected void paintComponent(Graphics graphics) {
+      protected void paintStaticLayer(Graphics graphics) {
         drawPortsToLayer(graphics, Constants.ETHER, Constants.TTP);
         drawPortsToLayer(graphics, Constants.ODU, Constants.TTP);
         drawPortsToLayer(graphics, Constants.ODU, Constants.CTP);
@@ -949,8 +1175,8 @@ public class NeFrame extends JFrame {
       Stroke currentStroke = graphics2d.getStroke();
       graphics2d.setStroke(stroke);
 
-      if (port1.getPortType().equals(Constants.CTP)
-          && port2.getPortType().equals(Constants.CTP)) {
+      if (port1.getPortTypeValue() == PortType.CTP
+          && port2.getPortTypeValue() == PortType.CTP) {
         drawLinkCutThrough(graphics, x1, y1, x2, y2);
       } else {
         graphics.drawLine(x1, y1, x2, y2);
@@ -985,7 +1211,7 @@ public class NeFrame extends JFrame {
      * @param portType  The Port Type
      */
     private void drawPortsToLayer(Graphics graphics, String layer, String portType) {
-      List<Port> searchedPortList = Port.searchPorts(portList, null, layer, portType);
+      List<Port> searchedPortList = portIndex.getPorts(null, layer, portType);
 
       for (Port port : searchedPortList) {
         Pos pos = portPosMap.get(port);
@@ -995,7 +1221,7 @@ public class NeFrame extends JFrame {
         }
 
         String portId;
-        if (port.getLayer().equals(Constants.ETHER)) {
+        if (port.getLayerValue() == Layer.ETHER) {
           portId = "";
         } else {
           Integer ofPortId = port.getOpenFlowPortId();
@@ -1057,7 +1283,7 @@ public class NeFrame extends JFrame {
 
       if (column == INFORMATION_MODEL_ID_COLNAME_LIST.indexOf(
           InformationModelIdCols.OF_PORT.getName())) {
-        if (port.getLayer().equals(Constants.ETHER)) {
+        if (port.getLayerValue() == Layer.ETHER) {
           setText(String.valueOf("-"));
         } else {
           Integer openFlowPortId = port.getOpenFlowPortId();
@@ -1094,118 +1320,116 @@ public class NeFrame extends JFrame {
   }
 
   /**
-   * The class for Connect button Action Listener.
+   * Connect to OpenFlow controller in a connection thread.
+   * If succeeded, show success message. (only if interactive)
+   * If failed, show error message.
+   * 
+   * @param closeFuture The future to wait for before connecting (null if none)
+   * @param interactive true: connected by Connect button
+   *                    false: reconnected by the network information reload
    */
-  private class ConnectToOpenFlowControllerListener implements ActionListener {
-    private NeFrame neFrame;
-
-    /**
-     * Constructor.
-     * 
-     * @param neFrame The NE frame
-     */
-    public ConnectToOpenFlowControllerListener(NeFrame neFrame) {
-      super();
-      this.neFrame = neFrame;
-    }
-
-    /**
-     * Connect to OpenFlow controller if connect button is clicked.
-     * If succeeded, show success message and start to confirm living state.
-     * If failed, show error message.
-     * 
-     * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
-     */
-    @Override
-    public void actionPerformed(ActionEvent event) {
-      Thread thread = new Thread(new Runnable() {
-        @Override
-        public void run() {
-          OFVersion of13 = OFVersion.OF_13;
-          ChannelFuture channelFuture = null;
-          String orgText = displayNeStatusButton.getText();
-
-          connectButton.setEnabled(false);
-          connectButton.setText("Connecting...");
-
-          String ofcHostname = Config.getProperty("ofcHostname");
-          if (ofcHostname == null) {
-            JOptionPane.showMessageDialog(neFrame, 
-                "ofcHostname[" + ofcHostname + "] setting is invalid.",
-                "Failed", JOptionPane.ERROR_MESSAGE);
-            return;
-          }
-
-          String ofcPortNumberString = Config.getProperty("ofcPortNumber");
-          Integer ofcPortNumber;
-          try {
-            ofcPortNumber = Integer.valueOf(ofcPortNumberString);
-          } catch (NumberFormatException e) {
-            logger.error("", e);
-            JOptionPane.showMessageDialog(neFrame,
-                "ofcPortNumber[" + ofcPortNumberString + "] setting is invalid.",
-                "Failed", JOptionPane.ERROR_MESSAGE);
-            return;
-          }
+  private void connect(final ChannelFuture closeFuture, final boolean interactive) {
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        if (closeFuture != null) {
+          closeFuture.awaitUninterruptibly();
+        }
 
-          ConnectorToOpenFlowController connector = new ConnectorToOpenFlowController();
-          try {
-            channelFuture = connector.connectToOpenFlowController(
-                ofcHostname,
-                ofcPortNumber,
-                of13,
-                dpid,
-                neFrame
-            );
-          } catch (Exception e) {
-            logger.error("", e);
-
-            JOptionPane.showMessageDialog(neFrame,
-                orgText + " failed to connect to OpenFlow controller.",
-                "Failed", JOptionPane.ERROR_MESSAGE);
-
-            setComponentsDefaultStatus(orgText);
-
-            return;
-          }
+        OFVersion of13 = OFVersion.OF_13;
+        ChannelFuture channelFuture = null;
 
-          JOptionPane.showMessageDialog(neFrame,
-              orgText + " is connected to OpenFlow controller.", 
-              "Succeeded", JOptionPane.INFORMATION_MESSAGE);
+        connectButton.setEnabled(false);
+        connectButton.setText("Connecting...");
 
-          connectButton.setText("Connected");
-          displayNeStatusButton.setText(orgText + " - Connected -");
-          flowmodStatusLabel.setText(Constants.FLOWMOD_INFO_TEXT_WAITING);
+        String ofcHostname = Config.getProperty("ofcHostname");
+        if (ofcHostname == null) {
+          JOptionPane.showMessageDialog(NeFrame.this,
+              "ofcHostname[" + ofcHostname + "] setting is invalid.",
+              "Failed", JOptionPane.ERROR_MESSAGE);
+          return;
+        }
 
-          try {
-            connector.comfirmOpenFlowControllerLiving(channelFuture, of13);
-          } catch (Exception e) {
-            logger.error("", e);
+        String ofcPortNumberString = Config.getProperty("ofcPortNumber");
+        Integer ofcPortNumber;
+        try {
+          ofcPortNumber = Integer.valueOf(ofcPortNumberString);
+        } catch (NumberFormatException e) {
+          logger.error("", e);
+          JOptionPane.showMessageDialog(NeFrame.this,
+              "ofcPortNumber[" + ofcPortNumberString + "] setting is invalid.",
+              "Failed", JOptionPane.ERROR_MESSAGE);
+          return;
+        }
 
-            JOptionPane.showMessageDialog(neFrame,
-                orgText + " is disconnected to OpenFlow controller.",
-                "Error", JOptionPane.ERROR_MESSAGE);
-            setComponentsDefaultStatus(orgText);
+        ConnectorToOpenFlowController connector = new ConnectorToOpenFlowController();
+        try {
+          channelFuture = connector.connectToOpenFlowController(
+              ofcHostname,
+              ofcPortNumber,
+              of13,
+              dpid,
+              portList,
+              flowState,
+              NeFrame.this
+          );
+        } catch (Exception e) {
+          logger.error("", e);
+
+          JOptionPane.showMessageDialog(NeFrame.this,
+              neTitle + " failed to connect to OpenFlow controller.",
+              "Failed", JOptionPane.ERROR_MESSAGE);
+
+          setComponentsDefaultStatus();
+
+          return;
+        }
 
-            return;
-          }
+        channel = channelFuture.getChannel();
+        if (released) {
+          channel.close();
+          return;
         }
 
-        /**
-         * Set NE frame to initial status.
-         * 
-         * @param neDefaultText The initial text of NE button.
-         */
-        private void setComponentsDefaultStatus(String neDefaultText) {
-          connectButton.setText("Connect");
-          connectButton.setEnabled(true);
-          displayNeStatusButton.setText(neDefaultText);
-          flowmodStatusLabel.setText(Constants.FLOWMOD_INFO_TEXT_DEFAULT);
+        connectButton.setText("Connected");
+        neListEntry.setConnected(true);
+        flowmodStatusLabel.setText(Constants.FLOWMOD_INFO_TEXT_WAITING);
+        connected.set(true);
+
+        // Living confirmation is done by OpenFlow pipeline.
+        // (NE frame is notified by connectionClosed() if disconnected.)
+        // The connection may be closed by OpenFlow controller before connected is set.
+        if (!channel.isConnected()) {
+          connectionClosed();
+          return;
         }
+        if (!interactive) {
+          logger.info("{} is reconnected to OpenFlow controller.", neTitle);
+          return;
+        }
+        JOptionPane.showMessageDialog(NeFrame.this,
+            neTitle + " is connected to OpenFlow controller.", 
+            "Succeeded", JOptionPane.INFORMATION_MESSAGE);
+      }
+    });
+    thread.setName("Connection Thread");
+    thread.start();
+  }
 
-      });
-      thread.setName("Connection Thread");
-      thread.start();
+  /**
+   * Action Listener for Connect button.
+   */
+  private class ConnectToOpenFlowControllerListener implements ActionListener {
+    /**
+     * Connect to OpenFlow controller if connect button is clicked.
+     * If succeeded, show success message.
+     * If failed, show error message.
+     * 
+     * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+     */
+    @Override
+    public void actionPerformed(ActionEvent event) {
+      connect(null, true);
     }
   }
 }
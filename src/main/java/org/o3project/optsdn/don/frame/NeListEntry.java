@@ -0,0 +1,239 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.frame;
+
+import org.jboss.netty.channel.ChannelFuture;
+import org.o3project.optsdn.don.nwc.Port;
+
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A row of the NE list.
+ * The NE frame is created when the row is opened at first.
+ */
+public class NeListEntry {
+  /* The text added to the title while connected to OpenFlow controller. */
+  private static final String CONNECTED_TEXT = " - Connected -";
+
+  private final String neId;
+  private final String neTitle;
+  private final List<Port> portList;
+  private final List<List<Port>> linkList;
+  private final List<List<Port>> omsConnectionInfoList;
+  private final String ptId;
+  private final long dpid;
+  private NeFrame neFrame;
+
+  /* Connected to OpenFlow controller or not. (Written by the connection thread) */
+  private volatile boolean connected;
+
+  /* The list model that displays this row. (null if not displayed) */
+  private NeListModel model;
+
+  /* The index in all rows of the list model. */
+  private int row;
+
+  /**
+   * Constructor.
+   * 
+   * @param neId                   NE ID
+   * @param portList               Ports
+   * @param linkList               Links
+   * @param omsConnectionInfoList  OMS connections
+   * @param ptId                   PT ID
+   * @param dpid                   Datapath ID
+   */
+  public NeListEntry(
+      String neId, List<Port> portList, List<List<Port>> linkList,
+      List<List<Port>> omsConnectionInfoList, String ptId, long dpid) {
+    super();
+    this.neId = neId;
+    this.neTitle = neId + "(DPID=" + dpid + ")";
+    this.portList = portList;
+    this.linkList = linkList;
+    this.omsConnectionInfoList = omsConnectionInfoList;
+    this.ptId = ptId;
+    this.dpid = dpid;
+  }
+
+  /**
+   * Get the NE ID.
+   * 
+   * @return The NE ID
+   */
+  public String getNeId() {
+    return neId;
+  }
+
+  /**
+   * Get the Datapath ID.
+   * 
+   * @return The Datapath ID
+   */
+  public long getDpid() {
+    return dpid;
+  }
+
+  /**
+   * Get the NE frame title.
+   * 
+   * @return The NE frame title
+   */
+  public String getNeTitle() {
+    return neTitle;
+  }
+
+  /**
+   * Get the text displayed in the NE list.
+   * 
+   * @return The NE frame title (with the connection state)
+   */
+  public String getDisplayText() {
+    return getDisplayText(connected);
+  }
+
+  /**
+   * Get the text displayed in the NE list.
+   * 
+   * @param connected The connection state
+   * @return The NE frame title (with the connection state)
+   */
+  public String getDisplayText(boolean connected) {
+    if (connected) {
+      return neTitle + CONNECTED_TEXT;
+    }
+    return neTitle;
+  }
+
+  /**
+   * Check if connected to OpenFlow controller.
+   * 
+   * @return true: if connected
+   *         false: otherwise
+   */
+  public boolean isConnected() {
+    return connected;
+  }
+
+  /**
+   * Set the connection state, and update the row of the NE list.
+   * (Called by any thread)
+   * 
+   * @param connected The connection state
+   */
+  public void setConnected(boolean connected) {
+    this.connected = connected;
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        if (model != null) {
+          model.fireEntryChanged(NeListEntry.this);
+        }
+      }
+    });
+  }
+
+  /**
+   * Display NE frame.
+   * Forefront the frame if the frame is already exist.
+   */
+  public void open() {
+    if (neFrame == null) {
+      createNeFrame();
+      neFrame.setVisible(true);
+    } else {
+      if (neFrame.isVisible()) {
+        neFrame.toFront();
+      } else {
+        neFrame.setVisible(true);
+      }
+    }
+  }
+
+  /**
+   * Connect the NE to OpenFlow controller again through a new NE frame.
+   * (for NEs changed by the network information reload, that were connected)
+   * 
+   * @param closeFuture The future of closing the previous connection (null if none)
+   * @param visible     true: display the NE frame
+   */
+  public void reconnect(ChannelFuture closeFuture, boolean visible) {
+    if (neFrame == null) {
+      createNeFrame();
+    }
+    if (visible) {
+      neFrame.setVisible(true);
+    }
+    neFrame.reconnect(closeFuture);
+  }
+
+  /**
+   * Check if the NE frame is displayed.
+   * 
+   * @return true: if displayed
+   *         false: otherwise
+   */
+  public boolean isFrameVisible() {
+    return neFrame != null && neFrame.isVisible();
+  }
+
+  /**
+   * Release the NE frame if created.
+   * 
+   * @return The future of closing the connection (null if not connected)
+   */
+  public ChannelFuture release() {
+    ChannelFuture closeFuture = null;
+    if (neFrame != null) {
+      closeFuture = neFrame.release();
+      neFrame = null;
+    }
+    return closeFuture;
+  }
+
+  /**
+   * Create the NE frame. (not displayed yet)
+   */
+  private void createNeFrame() {
+    neFrame = new NeFrame(
+        neTitle, portList, linkList, omsConnectionInfoList, ptId, dpid, this
+    );
+    neFrame.setLocationByPlatform(true);
+  }
+
+  /**
+   * Set the list model that displays this row.
+   * 
+   * @param model The list model (null if not displayed)
+   * @param row   The index in all rows of the list model
+   */
+  void setModel(NeListModel model, int row) {
+    this.model = model;
+    this.row = row;
+  }
+
+  /**
+   * Get the index in all rows of the list model.
+   * 
+   * @return The index
+   */
+  int getRow() {
+    return row;
+  }
+}
@@ -0,0 +1,133 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.frame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * List model of the NE list filtered by the search text.
+ * - Only the rows matched by the search index are displayed
+ * - The JList renders only the visible rows of the model
+ * Notes:
+ *   - Used by the EDT only.
+ */
+public class NeListModel extends AbstractListModel<NeListEntry> {
+  /* All rows. */
+  private List<NeListEntry> entryList = new ArrayList<NeListEntry>();
+
+  private NeSearchIndex searchIndex = new NeSearchIndex(entryList);
+
+  private String filterText = "";
+
+  /* The indexes of the displayed rows in all rows. (ascending) */
+  private int[] filteredRows = new int[0];
+
+  /**
+   * Replace all rows.
+   * 
+   * @param entries The rows (in display order)
+   */
+  public void setEntries(Collection<NeListEntry> entries) {
+    for (NeListEntry entry : entryList) {
+      entry.setModel(null, -1);
+    }
+    entryList = new ArrayList<NeListEntry>(entries);
+    for (int row = 0; row < entryList.size(); row++) {
+      entryList.get(row).setModel(this, row);
+    }
+    searchIndex = new NeSearchIndex(entryList);
+    applyFilter();
+  }
+
+  /**
+   * Get all rows.
+   * 
+   * @return All rows
+   */
+  public List<NeListEntry> getEntries() {
+    return entryList;
+  }
+
+  /**
+   * Set the search text, and display only the matched rows.
+   * 
+   * @param filterText The substring of NE ID or DP ID (all rows are displayed if empty)
+   */
+  public void setFilterText(String filterText) {
+    if (filterText.equals(this.filterText)) {
+      return;
+    }
+    this.filterText = filterText;
+    applyFilter();
+  }
+
+  /**
+   * @see javax.swing.ListModel#getSize()
+   */
+  @Override
+  public int getSize() {
+    return filteredRows.length;
+  }
+
+  /**
+   * @see javax.swing.ListModel#getElementAt(int)
+   */
+  @Override
+  public NeListEntry getElementAt(int index) {
+    return entryList.get(filteredRows[index]);
+  }
+
+  /**
+   * Notify that the row is changed. (e.g. connection state)
+   * 
+   * @param entry The row
+   */
+  void fireEntryChanged(NeListEntry entry) {
+    int index = Arrays.binarySearch(filteredRows, entry.getRow());
+    if (index >= 0) {
+      fireContentsChanged(this, index, index);
+    }
+  }
+
+  /**
+   * Search the rows with the search text, and replace the displayed rows.
+   */
+  private void applyFilter() {
+    BitSet matchedRows = searchIndex.search(filterText);
+    int[] newRows = new int[matchedRows.cardinality()];
+    int index = 0;
+    for (int row = matchedRows.nextSetBit(0); row >= 0; row = matchedRows.nextSetBit(row + 1)) {
+      newRows[index++] = row;
+    }
+
+    int oldSize = filteredRows.length;
+    filteredRows = new int[0];
+    if (oldSize > 0) {
+      fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+    filteredRows = newRows;
+    if (newRows.length > 0) {
+      fireIntervalAdded(this, 0, newRows.length - 1);
+    }
+  }
+}
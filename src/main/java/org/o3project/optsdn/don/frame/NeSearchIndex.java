@@ -0,0 +1,161 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.frame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Substring index of the NE list. (Key: NE ID and DP ID of each row)
+ * - All suffixes of the keys are sorted once when the index is created
+ * - A substring is found by the binary search of the suffixes that start with it
+ *   (A prefix of a key is a substring at offset 0)
+ * Notes:
+ *   - Case-insensitive.
+ *   - Immutable. (Recreated when the NE list is changed)
+ */
+public class NeSearchIndex {
+  /* The suffixes of the keys. (sorted) */
+  private final String[] suffixes;
+
+  /* The row of each suffix. (The same order as suffixes) */
+  private final int[] rows;
+
+  private final int rowCount;
+
+  /**
+   * Constructor.
+   * 
+   * @param entryList The rows of the NE list
+   */
+  public NeSearchIndex(List<NeListEntry> entryList) {
+    rowCount = entryList.size();
+
+    List<Suffix> suffixList = new ArrayList<Suffix>();
+    for (int row = 0; row < rowCount; row++) {
+      NeListEntry entry = entryList.get(row);
+      addSuffixes(suffixList, normalize(entry.getNeId()), row);
+      addSuffixes(suffixList, Long.toString(entry.getDpid()), row);
+    }
+
+    Suffix[] suffixArray = suffixList.toArray(new Suffix[suffixList.size()]);
+    Arrays.sort(suffixArray);
+    suffixes = new String[suffixArray.length];
+    rows = new int[suffixArray.length];
+    for (int i = 0; i < suffixArray.length; i++) {
+      suffixes[i] = suffixArray[i].text;
+      rows[i] = suffixArray[i].row;
+    }
+  }
+
+  /**
+   * Search the rows whose NE ID or DP ID contains the text.
+   * 
+   * @param text The search text (all rows are matched if empty)
+   * @return The matched rows
+   */
+  public BitSet search(String text) {
+    BitSet matchedRows = new BitSet(rowCount);
+    String key = normalize(text);
+    if (key.isEmpty()) {
+      matchedRows.set(0, rowCount);
+      return matchedRows;
+    }
+
+    for (int i = lowerBound(key); i < suffixes.length && suffixes[i].startsWith(key); i++) {
+      matchedRows.set(rows[i]);
+    }
+    return matchedRows;
+  }
+
+  /**
+   * Get the first index of the suffixes that are not less than the key.
+   * 
+   * @param key The search key
+   * @return The index
+   */
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = suffixes.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (suffixes[mid].compareTo(key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Add all suffixes of a key.
+   * 
+   * @param suffixList The suffixes
+   * @param key        The key
+   * @param row        The row of the key
+   */
+  private static void addSuffixes(List<Suffix> suffixList, String key, int row) {
+    for (int offset = 0; offset < key.length(); offset++) {
+      suffixList.add(new Suffix(key.substring(offset), row));
+    }
+  }
+
+  /**
+   * Normalize a key or a search text.
+   * 
+   * @param text The text
+   * @return The trimmed lower case text
+   */
+  private static String normalize(String text) {
+    return text.trim().toLowerCase(Locale.ENGLISH);
+  }
+
+  /**
+   * A suffix of a key.
+   */
+  private static class Suffix implements Comparable<Suffix> {
+    private final String text;
+    private final int row;
+
+    /**
+     * Constructor.
+     * 
+     * @param text The suffix
+     * @param row  The row of the key
+     */
+    private Suffix(String text, int row) {
+      this.text = text;
+      this.row = row;
+    }
+
+    /**
+     * @see java.lang.Comparable#compareTo(java.lang.Object)
+     */
+    @Override
+    public int compareTo(Suffix other) {
+      int result = text.compareTo(other.text);
+      if (result != 0) {
+        return result;
+      }
+      return Integer.compare(row, other.row);
+    }
+  }
+}
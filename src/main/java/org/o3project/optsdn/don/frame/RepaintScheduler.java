@@ -0,0 +1,118 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.frame;
+
+import org.o3project.optsdn.don.util.Config;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.Timer;
+
+/**
+ * Frame-rate-capped render scheduler shared by all NE frames.
+ * - Render tasks are marked dirty from any thread (e.g. OpenFlow threads)
+ * - Dirty render tasks are run on the EDT at most "maxRepaintsPerSecond" times per second
+ *   (A task marked many times during a frame is run only once)
+ * - The Swing timer is stopped while nothing is dirty
+ */
+public class RepaintScheduler {
+  private static RepaintScheduler instance;
+
+  /* The dirty render tasks. */
+  private final Set<Runnable> dirtyTaskSet =
+      Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>());
+
+  /* true: the Swing timer is running. */
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final Timer timer;
+
+  /**
+   * Constructor.
+   * 
+   * @param maxRepaintsPerSecond The max number of renders per second
+   */
+  private RepaintScheduler(int maxRepaintsPerSecond) {
+    int interval = 1000 / Math.max(maxRepaintsPerSecond, 1);
+    timer = new Timer(interval, new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent event) {
+        render();
+      }
+    });
+    timer.setCoalesce(true);
+  }
+
+  /**
+   * Get the scheduler.
+   * (The frame rate is determined by "maxRepaintsPerSecond" in config.properties file.)
+   * 
+   * @return The scheduler
+   */
+  public static synchronized RepaintScheduler getInstance() {
+    if (instance == null) {
+      int maxRepaintsPerSecond;
+      try {
+        maxRepaintsPerSecond = Integer.valueOf(Config.getProperty("maxRepaintsPerSecond"));
+      } catch (Exception e) {
+        maxRepaintsPerSecond = 30;
+      }
+      instance = new RepaintScheduler(maxRepaintsPerSecond);
+    }
+    return instance;
+  }
+
+  /**
+   * Mark the render task dirty. (Thread-safe)
+   * 
+   * @param renderTask The render task (e.g. repaint a frame)
+   */
+  public void markDirty(Runnable renderTask) {
+    dirtyTaskSet.add(renderTask);
+    if (running.compareAndSet(false, true)) {
+      timer.start();
+    }
+  }
+
+  /**
+   * Run the dirty render tasks. (Called on the EDT)
+   */
+  private void render() {
+    if (dirtyTaskSet.isEmpty()) {
+      running.set(false);
+      timer.stop();
+      // Restart if marked dirty while stopping.
+      if (!dirtyTaskSet.isEmpty() && running.compareAndSet(false, true)) {
+        timer.start();
+      }
+      return;
+    }
+
+    Iterator<Runnable> iterator = dirtyTaskSet.iterator();
+    while (iterator.hasNext()) {
+      Runnable renderTask = iterator.next();
+      iterator.remove();
+      renderTask.run();
+    }
+  }
+}
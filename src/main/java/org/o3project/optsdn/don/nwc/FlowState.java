@@ -0,0 +1,238 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.nwc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flow state of a NE (links created by Flowmod).
+ * Links are written by OpenFlow threads, and read as an immutable snapshot by GUI.
+ * - New links (highlighted) and old links (still created by flow entries) are always kept
+ *   (until the connection is closed)
+ * - Removed links (no flow entry creates them) are kept up to the max number as the history,
+ *   and the least recently removed one is evicted
+ */
+public class FlowState {
+  private final long dpid;
+
+  /*
+   * The List for new links.
+   * (Remove a link from the List after the highlight time.)
+   */
+  private final List<List<Integer>> linkListNew = new ArrayList<List<Integer>>();
+
+  /*
+   * The Set for old links.
+   * (Removed link from the List of new links)
+   */
+  private final Set<List<Integer>> linkSetOld = new LinkedHashSet<List<Integer>>();
+
+  /*
+   * The Set for removed links.
+   * (In the order of removal. Bounded by the max number)
+   */
+  private final Set<List<Integer>> linkSetHistory = new LinkedHashSet<List<Integer>>();
+
+  /* The max number of removed links. */
+  private final int maxHistoryLinks;
+
+  /* The latest snapshot. (null if links are changed after the snapshot is created) */
+  private Snapshot snapshot = Snapshot.EMPTY;
+
+  /**
+   * Constructor.
+   * 
+   * @param dpid            Datapath ID
+   * @param maxHistoryLinks The max number of removed links (0: removed links are not kept)
+   */
+  public FlowState(long dpid, int maxHistoryLinks) {
+    super();
+    this.dpid = dpid;
+    this.maxHistoryLinks = Math.max(maxHistoryLinks, 0);
+  }
+
+  /**
+   * Get the Datapath ID.
+   * 
+   * @return The Datapath ID
+   */
+  public long getDpid() {
+    return dpid;
+  }
+
+  /**
+   * Add a new link.
+   * 
+   * @param link The link with paired OpenFlow port IDs
+   */
+  public synchronized void addNewLink(List<Integer> link) {
+    linkListNew.add(link);
+    linkSetHistory.remove(link);
+    snapshot = null;
+  }
+
+  /**
+   * Change a new link to an old link.
+   * (Ignored if the link is already removed.)
+   * 
+   * @param link The link with paired OpenFlow port IDs
+   */
+  public synchronized void expireNewLink(List<Integer> link) {
+    if (!linkListNew.remove(link)) {
+      return;
+    }
+    linkSetOld.add(link);
+    snapshot = null;
+  }
+
+  /**
+   * Move a link from both new links and old links to the removed links.
+   * (for deleted flow entries)
+   * The least recently removed link is evicted if the removed links exceed the max number.
+   * 
+   * @param link The link with paired OpenFlow port IDs
+   */
+  public synchronized void removeLink(List<Integer> link) {
+    boolean removedNew = linkListNew.removeAll(Collections.singleton(link));
+    boolean removedOld = linkSetOld.remove(link);
+    if (!removedNew && !removedOld) {
+      return;
+    }
+
+    addToHistory(link);
+    evictHistory();
+    snapshot = null;
+  }
+
+  /**
+   * Move all new links and old links to the removed links.
+   * (for the closed connection, whose flow entries are discarded)
+   * The least recently removed links are evicted if the removed links exceed the max number.
+   */
+  public synchronized void removeAllLinks() {
+    if (linkListNew.isEmpty() && linkSetOld.isEmpty()) {
+      return;
+    }
+
+    for (List<Integer> link : linkSetOld) {
+      addToHistory(link);
+    }
+    for (List<Integer> link : linkListNew) {
+      addToHistory(link);
+    }
+    linkSetOld.clear();
+    linkListNew.clear();
+    evictHistory();
+    snapshot = null;
+  }
+
+  /**
+   * Move a link to the end of the removed links. (most recently removed)
+   * 
+   * @param link The link with paired OpenFlow port IDs
+   */
+  private void addToHistory(List<Integer> link) {
+    linkSetHistory.remove(link);
+    linkSetHistory.add(link);
+  }
+
+  /**
+   * Evict the least recently removed links that exceed the max number.
+   */
+  private void evictHistory() {
+    Iterator<List<Integer>> iterator = linkSetHistory.iterator();
+    while (linkSetHistory.size() > maxHistoryLinks) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Get the snapshot of links.
+   * The snapshot is not changed by the following updates.
+   * 
+   * @return The snapshot
+   */
+  public synchronized Snapshot getSnapshot() {
+    if (snapshot == null) {
+      snapshot = new Snapshot(
+          new ArrayList<List<Integer>>(linkListNew),
+          new ArrayList<List<Integer>>(linkSetOld),
+          new ArrayList<List<Integer>>(linkSetHistory));
+    }
+    return snapshot;
+  }
+
+  /**
+   * The immutable snapshot of links.
+   */
+  public static class Snapshot {
+    private static final Snapshot EMPTY = new Snapshot(
+        new ArrayList<List<Integer>>(), new ArrayList<List<Integer>>(),
+        new ArrayList<List<Integer>>());
+
+    private final List<List<Integer>> newLinks;
+    private final List<List<Integer>> oldLinks;
+    private final List<List<Integer>> historyLinks;
+
+    /**
+     * Constructor.
+     * 
+     * @param newLinks     New links
+     * @param oldLinks     Old links
+     * @param historyLinks Removed links
+     */
+    private Snapshot(List<List<Integer>> newLinks, List<List<Integer>> oldLinks,
+        List<List<Integer>> historyLinks) {
+      this.newLinks = Collections.unmodifiableList(newLinks);
+      this.oldLinks = Collections.unmodifiableList(oldLinks);
+      this.historyLinks = Collections.unmodifiableList(historyLinks);
+    }
+
+    /**
+     * Get new links.
+     * 
+     * @return New links
+     */
+    public List<List<Integer>> getNewLinks() {
+      return newLinks;
+    }
+
+    /**
+     * Get old links.
+     * 
+     * @return Old links
+     */
+    public List<List<Integer>> getOldLinks() {
+      return oldLinks;
+    }
+
+    /**
+     * Get removed links.
+     * 
+     * @return Removed links (in the order of removal)
+     */
+    public List<List<Integer>> getHistoryLinks() {
+      return historyLinks;
+    }
+  }
+}
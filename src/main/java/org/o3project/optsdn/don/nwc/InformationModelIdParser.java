@@ -0,0 +1,269 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.nwc;
+
+import org.o3project.optsdn.don.util.Constants;
+
+/**
+ * Parser of Information Model IDs.
+ * (example: NW=SDN, NE=OPT1, Layer=ODU, CTP=1)
+ * - Scans the ID in a single pass without splitting it
+ * - NW ID, NE ID and layer name are taken from the intern pool of the parser
+ * Notes:
+ *   - Not thread-safe. (Use a parser per reading thread.)
+ */
+public class InformationModelIdParser {
+  private static final String NW = "NW";
+  private static final String NE = "NE";
+  private static final String LAYER = "Layer";
+
+  /* The intern pool for NW ID, NE ID and layer name. */
+  private final StringPool stringPool = new StringPool();
+
+  /**
+   * Parse an Information Model ID.
+   * 
+   * @param informationModelId The Information Model ID
+   * @return The port
+   * @throws IllegalArgumentException The Information Model ID is invalid
+   *                                  (NE, Layer and either TTP or CTP are required)
+   */
+  public Port parse(String informationModelId) {
+    String nw = null;
+    String neId = null;
+    String layerName = null;
+    boolean hasTtp = false;
+    boolean hasCtp = false;
+    int ttpStart = 0;
+    int ttpEnd = 0;
+    int ctpStart = 0;
+    int ctpEnd = 0;
+
+    int length = informationModelId.length();
+    int start = 0;
+    while (start < length) {
+      int end = informationModelId.indexOf(',', start);
+      if (end < 0) {
+        end = length;
+      }
+
+      int keyStart = skipSpaces(informationModelId, start, end);
+      if (keyStart < end) {
+        int equalIndex = informationModelId.indexOf('=', keyStart);
+        if (equalIndex < 0 || equalIndex > end) {
+          throw invalid(informationModelId);
+        }
+        int keyEnd = trimSpaces(informationModelId, keyStart, equalIndex);
+        int valueStart = skipSpaces(informationModelId, equalIndex + 1, end);
+        int valueEnd = trimSpaces(informationModelId, valueStart, end);
+
+        if (isKey(informationModelId, keyStart, keyEnd, NW)) {
+          nw = stringPool.get(informationModelId, valueStart, valueEnd);
+        } else if (isKey(informationModelId, keyStart, keyEnd, NE)) {
+          neId = stringPool.get(informationModelId, valueStart, valueEnd);
+        } else if (isKey(informationModelId, keyStart, keyEnd, LAYER)) {
+          layerName = stringPool.get(informationModelId, valueStart, valueEnd);
+        } else if (isKey(informationModelId, keyStart, keyEnd, Constants.TTP)) {
+          hasTtp = true;
+          ttpStart = valueStart;
+          ttpEnd = valueEnd;
+        } else if (isKey(informationModelId, keyStart, keyEnd, Constants.CTP)) {
+          hasCtp = true;
+          ctpStart = valueStart;
+          ctpEnd = valueEnd;
+        }
+      }
+
+      start = end + 1;
+    }
+
+    if (neId == null || layerName == null || hasTtp == hasCtp) {
+      throw invalid(informationModelId);
+    }
+
+    PortType portType;
+    int portId;
+    if (hasTtp) {
+      portType = PortType.TTP;
+      portId = parsePortId(informationModelId, ttpStart, ttpEnd);
+    } else {
+      portType = PortType.CTP;
+      portId = parsePortId(informationModelId, ctpStart, ctpEnd);
+    }
+
+    return new Port(
+        informationModelId, nw, neId, Layer.fromName(layerName), layerName, portType, portId);
+  }
+
+  /**
+   * Check if the key in the Information Model ID is the name.
+   * 
+   * @param informationModelId The Information Model ID
+   * @param start              The start index of the key
+   * @param end                The end index of the key (exclusive)
+   * @param name               The name
+   * @return true: if the key is the name
+   *         false: otherwise
+   */
+  private static boolean isKey(String informationModelId, int start, int end, String name) {
+    return end - start == name.length()
+        && informationModelId.regionMatches(start, name, 0, name.length());
+  }
+
+  /**
+   * Parse the port ID in the Information Model ID.
+   * 
+   * @param informationModelId The Information Model ID
+   * @param start              The start index of the port ID
+   * @param end                The end index of the port ID (exclusive)
+   * @return The port ID
+   * @throws IllegalArgumentException The port ID is not a number between 0 and 2^31-1
+   */
+  private static int parsePortId(String informationModelId, int start, int end) {
+    if (start >= end) {
+      throw invalid(informationModelId);
+    }
+    long portId = 0;
+    for (int i = start; i < end; i++) {
+      char ch = informationModelId.charAt(i);
+      if (ch < '0' || ch > '9') {
+        throw invalid(informationModelId);
+      }
+      portId = portId * 10 + (ch - '0');
+      if (portId > Integer.MAX_VALUE) {
+        throw invalid(informationModelId);
+      }
+    }
+    return (int) portId;
+  }
+
+  /**
+   * Skip the leading spaces.
+   * 
+   * @param string The string
+   * @param start  The start index
+   * @param end    The end index (exclusive)
+   * @return The index of the first non-space character (end if not found)
+   */
+  private static int skipSpaces(String string, int start, int end) {
+    while (start < end && string.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  /**
+   * Trim the trailing spaces.
+   * 
+   * @param string The string
+   * @param start  The start index
+   * @param end    The end index (exclusive)
+   * @return The end index without the trailing spaces (exclusive)
+   */
+  private static int trimSpaces(String string, int start, int end) {
+    while (end > start && string.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Create the exception for an invalid Information Model ID.
+   * 
+   * @param informationModelId The Information Model ID
+   * @return The exception
+   */
+  private static IllegalArgumentException invalid(String informationModelId) {
+    return new IllegalArgumentException(
+        "Information Model ID[" + informationModelId + "] is invalid.");
+  }
+
+  /**
+   * The intern pool that looks up a part of a string without creating a substring.
+   * (Open addressing hash table)
+   */
+  private static class StringPool {
+    private String[] table = new String[64];
+    private int size;
+
+    /**
+     * Get the pooled string that equals to the part of the source.
+     * The substring is created and interned only at the first time.
+     * 
+     * @param source The source string
+     * @param start  The start index
+     * @param end    The end index (exclusive)
+     * @return The pooled string
+     */
+    private String get(String source, int start, int end) {
+      int length = end - start;
+      int hash = 0;
+      for (int i = start; i < end; i++) {
+        hash = 31 * hash + source.charAt(i);
+      }
+
+      int mask = table.length - 1;
+      int index = spread(hash) & mask;
+      String entry;
+      while ((entry = table[index]) != null) {
+        if (entry.hashCode() == hash
+            && entry.length() == length
+            && entry.regionMatches(0, source, start, length)) {
+          return entry;
+        }
+        index = (index + 1) & mask;
+      }
+
+      String string = source.substring(start, end).intern();
+      table[index] = string;
+      size++;
+      if (size * 2 > table.length) {
+        rehash();
+      }
+      return string;
+    }
+
+    /**
+     * Double the table.
+     */
+    private void rehash() {
+      String[] oldTable = table;
+      table = new String[oldTable.length * 2];
+      int mask = table.length - 1;
+      for (String entry : oldTable) {
+        if (entry == null) {
+          continue;
+        }
+        int index = spread(entry.hashCode()) & mask;
+        while (table[index] != null) {
+          index = (index + 1) & mask;
+        }
+        table[index] = entry;
+      }
+    }
+
+    /**
+     * Spread the higher bits of the hash to the lower bits.
+     * 
+     * @param hash The hash
+     * @return The spread hash
+     */
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.nwc;
+
+import org.o3project.optsdn.don.util.Constants;
+
+/**
+ * Layer of a port.
+ */
+public enum Layer {
+  ETHER(Constants.ETHER, 2),
+  ODU(Constants.ODU, 1),
+  OCH(Constants.OCH, 0);
+
+  private final String name;
+  private final int priority;
+
+  /**
+   * Constructor.
+   * 
+   * @param name     The layer name in the Information Model ID
+   * @param priority The layer priority
+   */
+  private Layer(String name, int priority) {
+    this.name = name;
+    this.priority = priority;
+  }
+
+  /**
+   * Get the layer name.
+   * 
+   * @return The layer name (Constants.ETHER, Constants.ODU or Constants.OCH)
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the priority of the layer.
+   * Priority: ETHER > ODU > OCh
+   * 
+   * @return The layer priority
+   */
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * Get the layer from the layer name.
+   * 
+   * @param name The layer name in the Information Model ID
+   * @return The layer (null if the name is unknown)
+   */
+  public static Layer fromName(String name) {
+    if (name == null) {
+      return null;
+    }
+    switch (name) {
+      case Constants.ETHER:
+        return ETHER;
+      case Constants.ODU:
+        return ODU;
+      case Constants.OCH:
+        return OCH;
+      default:
+        return null;
+    }
+  }
+}
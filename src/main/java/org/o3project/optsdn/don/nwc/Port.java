@@ -16,30 +16,30 @@
 
 package org.o3project.optsdn.don.nwc;
 
-import org.o3project.optsdn.don.util.Constants;
-
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * Port object class.
+ * Notes:
+ *   - The layer and the port type are held as enums (with the names for unknown values).
+ *   - NW ID, NE ID, layer name and port type name are interned.
+ *   - The hash code is calculated once in the constructor.
  */
 public class Port {
   private final String informationModelId;
   private final String nw;
   private final String neId;
-  private final String layer;
-  private String portType;
-  private int portId;
+  private final Layer layer;
+  private final String layerName;
+  private final PortType portType;
+  private final String portTypeName;
+  private final int portId;
+  private final int hash;
   private Integer openFlowPortId;
 
-  private static final String NW = "NW";
-  private static final String NE = "NE";
-  private static final String LAYER = "Layer";
-
   /**
    * Constructor.
    * 
@@ -60,73 +60,86 @@ public class Port {
 
     super();
     this.informationModelId = informationModelId;
-    this.nw = nw;
-    this.neId = neId;
-    this.layer = layer;
-    this.portType = portType;
+    this.nw = intern(nw);
+    this.neId = intern(neId);
+    this.layer = Layer.fromName(layer);
+    this.layerName = (this.layer != null) ? this.layer.getName() : intern(layer);
+    this.portType = PortType.fromName(portType);
+    this.portTypeName = (this.portType != null) ? this.portType.getName() : intern(portType);
     this.portId = portId;
+    this.hash = calcHashCode();
   }
 
   /**
-   * Constructor.
+   * Constructor. (for InformationModelIdParser)
    * 
    * @param informationModelId  Information Model ID
+   * @param nw                  NW ID (interned)
+   * @param neId                NE ID (interned)
+   * @param layer               Layer (null if the layer name is unknown)
+   * @param layerName           Layer name (interned)
+   * @param portType            Port type
+   * @param portId              Port ID
    */
-  public Port(String informationModelId) {
+  Port(
+      String informationModelId,
+      String nw,
+      String neId,
+      Layer layer,
+      String layerName,
+      PortType portType,
+      int portId) {
+
     super();
     this.informationModelId = informationModelId;
-
-    Map<String, String> informationModelIdMap = createInformationModelIdMap(informationModelId);
-    nw = informationModelIdMap.get(NW);
-    neId = informationModelIdMap.get(NE);
-    layer = informationModelIdMap.get(LAYER);
-
-    String ttp = informationModelIdMap.get(Constants.TTP);
-    String ctp = informationModelIdMap.get(Constants.CTP);
-    if (ttp != null && ctp == null) {
-      portType = Constants.TTP;
-      portId = Integer.valueOf(ttp);
-    } else if (ctp != null && ttp == null) {
-      portType = Constants.CTP;
-      portId = Integer.valueOf(ctp);
-    }
+    this.nw = nw;
+    this.neId = neId;
+    this.layer = layer;
+    this.layerName = (layer != null) ? layer.getName() : layerName;
+    this.portType = portType;
+    this.portTypeName = (portType != null) ? portType.getName() : null;
+    this.portId = portId;
+    this.hash = calcHashCode();
   }
 
   /**
-   * Create a Map object with InformationModelID.
-   * (example: NW=SDN, NE=OPT1, Layer=ODU, CTP=1)
+   * Intern the string.
    * 
-   * @param informationModelId The Information Model ID
-   * @return The Map object
+   * @param string The string
+   * @return The interned string (null if the string is null)
    */
-  private Map<String, String> createInformationModelIdMap(String informationModelId) {
-    String[] imIdExpressions = informationModelId.split(",");
-    Map<String, String> imIdMap = new HashMap<String, String>();
-    for (String expression : imIdExpressions) {
-      int firstEqualIndex = expression.indexOf("=");
-      imIdMap.put(
-          expression.substring(0, firstEqualIndex).trim(),
-          expression.substring(firstEqualIndex + 1, expression.length()).trim());
+  private static String intern(String string) {
+    if (string == null) {
+      return null;
     }
-    return imIdMap;
+    return string.intern();
   }
 
   /**
-   * @see java.lang.Object#hashCode()
+   * Calculate the hash code.
+   * 
+   * @return The hash code
    */
-  @Override
-  public int hashCode() {
+  private int calcHashCode() {
     final int prime = 31;
     int result = 1;
-    result = prime * result + ((layer == null) ? 0 : layer.hashCode());
+    result = prime * result + ((layerName == null) ? 0 : layerName.hashCode());
     result = prime * result + ((neId == null) ? 0 : neId.hashCode());
     result = prime * result + ((nw == null) ? 0 : nw.hashCode());
     result = prime * result + ((informationModelId == null) ? 0 : informationModelId.hashCode());
     result = prime * result + portId;
-    result = prime * result + ((portType == null) ? 0 : portType.hashCode());
+    result = prime * result + ((portTypeName == null) ? 0 : portTypeName.hashCode());
     return result;
   }
 
+  /**
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   /**
    * @see java.lang.Object#equals(java.lang.Object)
    */
@@ -142,45 +155,16 @@ public class Port {
       return false;
     }
     Port other = (Port) obj;
-    if (informationModelId == null) {
-      if (other.informationModelId != null) {
-        return false;
-      }
-    } else if (!informationModelId.equals(other.informationModelId)) {
-      return false;
-    }
-    if (nw == null) {
-      if (other.nw != null) {
-        return false;
-      }
-    } else if (!nw.equals(other.nw)) {
-      return false;
-    }
-    if (neId == null) {
-      if (other.neId != null) {
-        return false;
-      }
-    } else if (!neId.equals(other.neId)) {
-      return false;
-    }
-    if (layer == null) {
-      if (other.layer != null) {
-        return false;
-      }
-    } else if (!layer.equals(other.layer)) {
-      return false;
-    }
-    if (portType == null) {
-      if (other.portType != null) {
-        return false;
-      }
-    } else if (!portType.equals(other.portType)) {
-      return false;
-    }
-    if (portId != other.portId) {
-      return false;
-    }
-    return true;
+    // Compare the cheap fields first (interned names are compared by reference in most cases)
+    return hash == other.hash
+        && portId == other.portId
+        && layer == other.layer
+        && portType == other.portType
+        && Objects.equals(layerName, other.layerName)
+        && Objects.equals(portTypeName, other.portTypeName)
+        && Objects.equals(neId, other.neId)
+        && Objects.equals(nw, other.nw)
+        && Objects.equals(informationModelId, other.informationModelId);
   }
 
   /**
@@ -202,15 +186,18 @@ public class Port {
    */
   public static List<Port> searchPorts(
       Collection<Port> ports, String neId, String layer, String portType) {
+    Layer layerCondition = Layer.fromName(layer);
+    PortType portTypeCondition = PortType.fromName(portType);
+
     List<Port> portList = new ArrayList<Port>();
     for (Port port : ports) {
       if (neId != null && !port.neId.equals(neId)) {
         continue;
       }
-      if (layer != null && !port.layer.equals(layer)) {
+      if (layer != null && !port.isLayer(layerCondition, layer)) {
         continue;
       }
-      if (portType != null && !port.portType.equals(portType)) {
+      if (portType != null && !port.isPortType(portTypeCondition, portType)) {
         continue;
       }
       portList.add(port);
@@ -218,6 +205,36 @@ public class Port {
     return portList;
   }
 
+  /**
+   * Check if the port is in the layer.
+   * 
+   * @param layer     The layer (null if the layer name is unknown)
+   * @param layerName The layer name
+   * @return true: if in the layer
+   *         false: otherwise
+   */
+  private boolean isLayer(Layer layer, String layerName) {
+    if (layer != null) {
+      return this.layer == layer;
+    }
+    return layerName.equals(this.layerName);
+  }
+
+  /**
+   * Check if the port is the port type.
+   * 
+   * @param portType     The port type (null if the port type name is unknown)
+   * @param portTypeName The port type name
+   * @return true: if the port type
+   *         false: otherwise
+   */
+  private boolean isPortType(PortType portType, String portTypeName) {
+    if (portType != null) {
+      return this.portType == portType;
+    }
+    return portTypeName.equals(this.portTypeName);
+  }
+
   /**
    * Get priority of the port.
    * Priority: TTP > CTP
@@ -225,14 +242,10 @@ public class Port {
    * @return Port Priority
    */
   public int getPortPriority() {
-    switch (portType) {
-      case Constants.TTP:
-        return 2;
-      case Constants.CTP:
-        return 1;
-      default:
-        return 0;
+    if (portType == null) {
+      return 0;
     }
+    return portType.getPriority();
   }
 
   /**
@@ -242,16 +255,10 @@ public class Port {
    * @return Layer Priority
    */
   public int getLayerPriority() {
-    switch (layer) {
-      case Constants.ETHER:
-        return 2;
-      case Constants.ODU:
-        return 1;
-      case Constants.OCH:
-        return 0;
-      default:
-        return -1;
+    if (layer == null) {
+      return -1;
     }
+    return layer.getPriority();
   }
 
   /**
@@ -263,6 +270,15 @@ public class Port {
     return informationModelId;
   }
 
+  /**
+   * Get the NW ID.
+   * 
+   * @return The NW ID
+   */
+  public String getNw() {
+    return nw;
+  }
+
   /**
    * Get the NE ID.
    * 
@@ -278,6 +294,15 @@ public class Port {
    * @return The Port Type
    */
   public String getPortType() {
+    return portTypeName;
+  }
+
+  /**
+   * Get the port type as an enum.
+   * 
+   * @return The Port Type (null if the port type is unknown)
+   */
+  public PortType getPortTypeValue() {
     return portType;
   }
 
@@ -287,6 +312,15 @@ public class Port {
    * @return The Layer
    */
   public String getLayer() {
+    return layerName;
+  }
+
+  /**
+   * Get the layer as an enum.
+   * 
+   * @return The Layer (null if the layer is unknown)
+   */
+  public Layer getLayerValue() {
     return layer;
   }
 
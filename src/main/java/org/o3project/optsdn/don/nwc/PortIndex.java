@@ -0,0 +1,198 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.nwc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of ports.
+ * - NE index (Key: NE ID)
+ * - NE-layer-port type index (Key: NE ID, layer and port type)
+ * - Layer-port type index (Key: layer and port type)
+ * Notes:
+ *   - Built once, and queried without scanning all ports.
+ *   - Ports are kept in the order of the source collection.
+ */
+public class PortIndex {
+  /* All ports. */
+  private final List<Port> allPorts;
+
+  /* The NE index. (Key:NE ID) */
+  private final Map<String, List<Port>> neIndex = new LinkedHashMap<String, List<Port>>();
+
+  /* The NE-layer-port type index. (Key:NE ID, Layer, Port type) */
+  private final Map<String, Map<String, Map<String, List<Port>>>> neLayerPortTypeIndex =
+      new LinkedHashMap<String, Map<String, Map<String, List<Port>>>>();
+
+  /* The layer-port type index. (Key:Layer, Port type) */
+  private final Map<String, Map<String, List<Port>>> layerPortTypeIndex =
+      new LinkedHashMap<String, Map<String, List<Port>>>();
+
+  /**
+   * Constructor.
+   * 
+   * @param ports The ports to be indexed
+   */
+  public PortIndex(Collection<Port> ports) {
+    super();
+    allPorts = Collections.unmodifiableList(new ArrayList<Port>(ports));
+
+    for (Port port : allPorts) {
+      List<Port> nePorts = neIndex.get(port.getNeId());
+      if (nePorts == null) {
+        nePorts = new ArrayList<Port>();
+        neIndex.put(port.getNeId(), nePorts);
+      }
+      nePorts.add(port);
+
+      Map<String, Map<String, List<Port>>> neLayerIndex = neLayerPortTypeIndex.get(port.getNeId());
+      if (neLayerIndex == null) {
+        neLayerIndex = new LinkedHashMap<String, Map<String, List<Port>>>();
+        neLayerPortTypeIndex.put(port.getNeId(), neLayerIndex);
+      }
+      addToLayerPortTypeIndex(neLayerIndex, port);
+      addToLayerPortTypeIndex(layerPortTypeIndex, port);
+    }
+
+    freeze(neIndex);
+    for (Map<String, Map<String, List<Port>>> neLayerIndex : neLayerPortTypeIndex.values()) {
+      for (Map<String, List<Port>> portTypeIndex : neLayerIndex.values()) {
+        freeze(portTypeIndex);
+      }
+    }
+    for (Map<String, List<Port>> portTypeIndex : layerPortTypeIndex.values()) {
+      freeze(portTypeIndex);
+    }
+  }
+
+  /**
+   * Get ports with search condition.
+   * (The same result as Port.searchPorts, without scanning all ports if indexed.)
+   * 
+   * @param neId     Condition: NE ID (null if not specified)
+   * @param layer    Condition: Layer (null if not specified)
+   * @param portType Condition: Port type (null if not specified)
+   * @return The ports (unmodifiable)
+   */
+  public List<Port> getPorts(String neId, String layer, String portType) {
+    if (layer != null && portType != null) {
+      Map<String, Map<String, List<Port>>> index;
+      if (neId == null) {
+        index = layerPortTypeIndex;
+      } else {
+        index = neLayerPortTypeIndex.get(neId);
+      }
+      return getPorts(index, layer, portType);
+    }
+
+    List<Port> candidates;
+    if (neId == null) {
+      candidates = allPorts;
+    } else {
+      candidates = neIndex.get(neId);
+      if (candidates == null) {
+        return Collections.emptyList();
+      }
+    }
+    if (layer == null && portType == null) {
+      return candidates;
+    }
+    return Collections.unmodifiableList(Port.searchPorts(candidates, null, layer, portType));
+  }
+
+  /**
+   * Get the number of ports with search condition.
+   * 
+   * @param neId     Condition: NE ID (null if not specified)
+   * @param layer    Condition: Layer (null if not specified)
+   * @param portType Condition: Port type (null if not specified)
+   * @return The number of ports
+   */
+  public int countPorts(String neId, String layer, String portType) {
+    return getPorts(neId, layer, portType).size();
+  }
+
+  /**
+   * Get all ports.
+   * 
+   * @return All ports (unmodifiable)
+   */
+  public List<Port> getAllPorts() {
+    return allPorts;
+  }
+
+  /**
+   * Get ports from the layer-port type index.
+   * 
+   * @param index    The layer-port type index (null if the NE is not indexed)
+   * @param layer    The layer
+   * @param portType The port type
+   * @return The ports (unmodifiable)
+   */
+  private List<Port> getPorts(
+      Map<String, Map<String, List<Port>>> index, String layer, String portType) {
+    if (index == null) {
+      return Collections.emptyList();
+    }
+    Map<String, List<Port>> portTypeIndex = index.get(layer);
+    if (portTypeIndex == null) {
+      return Collections.emptyList();
+    }
+    List<Port> ports = portTypeIndex.get(portType);
+    if (ports == null) {
+      return Collections.emptyList();
+    }
+    return ports;
+  }
+
+  /**
+   * Add a port to the layer-port type index.
+   * 
+   * @param index The layer-port type index
+   * @param port  The port
+   */
+  private static void addToLayerPortTypeIndex(
+      Map<String, Map<String, List<Port>>> index, Port port) {
+    Map<String, List<Port>> portTypeIndex = index.get(port.getLayer());
+    if (portTypeIndex == null) {
+      portTypeIndex = new LinkedHashMap<String, List<Port>>();
+      index.put(port.getLayer(), portTypeIndex);
+    }
+    List<Port> ports = portTypeIndex.get(port.getPortType());
+    if (ports == null) {
+      ports = new ArrayList<Port>();
+      portTypeIndex.put(port.getPortType(), ports);
+    }
+    ports.add(port);
+  }
+
+  /**
+   * Make the port lists in the index unmodifiable.
+   * 
+   * @param index The index
+   */
+  private static void freeze(Map<String, List<Port>> index) {
+    for (Map.Entry<String, List<Port>> entry : index.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.nwc;
+
+import org.o3project.optsdn.don.util.Constants;
+
+/**
+ * Type of a port.
+ */
+public enum PortType {
+  TTP(Constants.TTP, 2),
+  CTP(Constants.CTP, 1);
+
+  private final String name;
+  private final int priority;
+
+  /**
+   * Constructor.
+   * 
+   * @param name     The port type name in the Information Model ID
+   * @param priority The port priority
+   */
+  private PortType(String name, int priority) {
+    this.name = name;
+    this.priority = priority;
+  }
+
+  /**
+   * Get the port type name.
+   * 
+   * @return The port type name (Constants.TTP or Constants.CTP)
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the priority of the port type.
+   * Priority: TTP > CTP
+   * 
+   * @return The port priority
+   */
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * Get the port type from the port type name.
+   * 
+   * @param name The port type name in the Information Model ID
+   * @return The port type (null if the name is unknown)
+   */
+  public static PortType fromName(String name) {
+    if (name == null) {
+      return null;
+    }
+    switch (name) {
+      case Constants.TTP:
+        return TTP;
+      case Constants.CTP:
+        return CTP;
+      default:
+        return null;
+    }
+  }
+}
@@ -18,9 +18,14 @@ package org.o3project.optsdn.don.openflow;
 
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.channel.ChannelFuture;
-import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.channel.group.DefaultChannelGroup;
 import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
-import org.o3project.optsdn.don.frame.NeFrame;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.jboss.netty.util.Timer;
+import org.o3project.optsdn.don.nwc.FlowState;
+import org.o3project.optsdn.don.nwc.Port;
+import org.o3project.optsdn.don.util.Config;
 import org.projectfloodlight.openflow.protocol.OFFactories;
 import org.projectfloodlight.openflow.protocol.OFVersion;
 import org.slf4j.Logger;
@@ -28,7 +33,9 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Connect to OpenFlow controller.
@@ -36,18 +43,113 @@ import java.util.concurrent.Executors;
 public class ConnectorToOpenFlowController {
   public static Logger logger = LoggerFactory.getLogger(ConnectorToOpenFlowController.class);
 
+  /* The channel factory shared by all NEs. (Created at the first connection) */
+  private static NioClientSocketChannelFactory channelFactory;
+
+  /* The timer shared by all NEs. (Created at the first connection) */
+  private static Timer timer;
+
+  /* The scheduler to flush batched writes shared by all NEs. (Created at the first connection) */
+  private static ScheduledExecutorService flushScheduler;
+
+  /* The channels of all connected NEs. */
+  private static final ChannelGroup channelGroup = new DefaultChannelGroup("DON");
+
   private final ClientBootstrap bootstrap;
 
   /**
    * Constructor.
    */
   public ConnectorToOpenFlowController() {
-    bootstrap = new ClientBootstrap(
-        new NioClientSocketChannelFactory(
-            Executors.newSingleThreadExecutor(),
-            Executors.newFixedThreadPool(100)
-        )
-    );
+    bootstrap = new ClientBootstrap(getChannelFactory());
+  }
+
+  /**
+   * Get the channel factory shared by all NEs.
+   * The number of threads is determined by
+   * "openFlowBossThreads" and "openFlowWorkerThreads" in config.properties.
+   * 
+   * @return The channel factory
+   */
+  private static synchronized NioClientSocketChannelFactory getChannelFactory() {
+    if (channelFactory == null) {
+      int bossThreads = getThreadCount("openFlowBossThreads", 1);
+      int workerThreads = getThreadCount(
+          "openFlowWorkerThreads", Runtime.getRuntime().availableProcessors());
+      logger.info("OpenFlow threads: boss={}, worker={}", bossThreads, workerThreads);
+
+      channelFactory = new NioClientSocketChannelFactory(
+          Executors.newCachedThreadPool(),
+          Executors.newCachedThreadPool(),
+          bossThreads,
+          workerThreads
+      );
+    }
+    return channelFactory;
+  }
+
+  /**
+   * Get the timer shared by all NEs.
+   * 
+   * @return The timer
+   */
+  private static synchronized Timer getTimer() {
+    if (timer == null) {
+      timer = new HashedWheelTimer();
+    }
+    return timer;
+  }
+
+  /**
+   * Get the scheduler to flush batched writes shared by all NEs.
+   * (The thread is started at the first scheduled flush.)
+   * 
+   * @return The scheduler
+   */
+  private static synchronized ScheduledExecutorService getFlushScheduler() {
+    if (flushScheduler == null) {
+      flushScheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+    return flushScheduler;
+  }
+
+  /**
+   * Get the number of threads from config.properties.
+   * 
+   * @param key           Property Key
+   * @param defaultCount  The default number of threads
+   * @return The number of threads
+   */
+  private static int getThreadCount(String key, int defaultCount) {
+    int count;
+    try {
+      count = Integer.valueOf(Config.getProperty(key));
+    } catch (Exception e) {
+      return defaultCount;
+    }
+    if (count <= 0) {
+      return defaultCount;
+    }
+    return count;
+  }
+
+  /**
+   * Close all connections and release the threads shared by all NEs.
+   */
+  public static synchronized void releaseSharedResources() {
+    channelGroup.close().awaitUninterruptibly();
+    if (channelFactory != null) {
+      channelFactory.releaseExternalResources();
+      channelFactory = null;
+    }
+    if (timer != null) {
+      timer.stop();
+      timer = null;
+    }
+    if (flushScheduler != null) {
+      flushScheduler.shutdownNow();
+      flushScheduler = null;
+    }
   }
 
   /**
@@ -57,7 +159,9 @@ public class ConnectorToOpenFlowController {
    * @param portNumber      TCP port number
    * @param ofVersion       OpenFlow version
    * @param dpid            OpenFlow datapath ID
-   * @param neFrame         NE frame to refresh
+   * @param portList        Ports of the NE (null if no port)
+   * @param flowState       Flow state of the NE (null in headless mode)
+   * @param neStatusListener NE status listener to refresh (null in headless mode)
    * @return ChannelFuture Connection
    * @throws Exception Fail Connection
    */
@@ -66,7 +170,9 @@ public class ConnectorToOpenFlowController {
       int portNumber,
       OFVersion ofVersion,
       long dpid,
-      NeFrame neFrame) throws Exception {
+      List<Port> portList,
+      FlowState flowState,
+      NeStatusListener neStatusListener) throws Exception {
 
     bootstrap.setOption("tcpNoDelay", true);
     bootstrap.setOption("keepAlive", true);
@@ -75,7 +181,8 @@ public class ConnectorToOpenFlowController {
 
     bootstrap.setPipelineFactory(
         new OpenFlowPipelineFactory(
-            new OpenFlowHandler(OFFactories.getFactory(ofVersion), dpid, neFrame)
+            OFFactories.getFactory(ofVersion), dpid, portList, flowState, neStatusListener,
+            getTimer(), getFlushScheduler()
         )
     );
 
@@ -86,46 +193,10 @@ public class ConnectorToOpenFlowController {
     channelFuture.awaitUninterruptibly();
 
     if (!channelFuture.isSuccess()) {
-      bootstrap.releaseExternalResources();
       throw new Exception(channelFuture.getCause().getMessage());
     }
 
+    channelGroup.add(channelFuture.getChannel());
     return channelFuture;
   }
-
-  /**
-   * Send "ECHO REQUEST" per 10 seconds.
-   * 
-   * @param channelFuture  Connection
-   * @param ofVersion      OpenFlow Version
-   * @throws Exception Fail Connection
-   */
-  public void comfirmOpenFlowControllerLiving(
-      ChannelFuture channelFuture, OFVersion ofVersion) throws Exception {
-
-    while (true) {
-      Thread.sleep(1000 * 10);
-
-      if (channelFuture.getChannel().isWritable()) {
-
-        channelFuture.getChannel().write(
-            OFFactories.getFactory(ofVersion).buildEchoRequest().build()
-        );
-
-        channelFuture.addListener(new ChannelFutureListener() {
-          @Override
-          public void operationComplete(ChannelFuture channelFuture) throws Exception {
-            if (!channelFuture.isSuccess()) {
-              bootstrap.releaseExternalResources();
-              throw new Exception("Living confirmation is failed.");
-            }
-          }
-        });
-
-      } else {
-        bootstrap.releaseExternalResources();
-        throw new Exception("Living confirmation is failed.");
-      }
-    }
-  }
 }
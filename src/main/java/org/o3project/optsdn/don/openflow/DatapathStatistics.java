@@ -0,0 +1,133 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics of the emulated datapath.
+ * DON has no data plane, so the counters are maintained on the Flowmod path.
+ * - Port rx/tx: The number of Flowmods that match the in port / output to the port
+ * - Table lookup/matched: The number of Flowmods / Flowmods that hit flow entries
+ * Notes:
+ *   - Not thread-safe. (Used by the I/O thread of the connection.)
+ */
+public class DatapathStatistics {
+  /* The port counters. (Key:OpenFlow port ID) */
+  private final Map<Integer, PortCounter> portCounterMap = new HashMap<Integer, PortCounter>();
+
+  private long lookupCount;
+  private long matchedCount;
+
+  /* Created time. (System.nanoTime()) */
+  private final long createdTime = System.nanoTime();
+
+  /**
+   * Count a received Flowmod.
+   * 
+   * @param flowEntry The flow entry created from the Flowmod
+   */
+  public void countFlowmod(FlowEntry flowEntry) {
+    lookupCount++;
+    if (flowEntry.getMatchInPort() != null) {
+      getPortCounter(flowEntry.getMatchInPort().getPortNumber()).rxCount++;
+    }
+    if (flowEntry.getOutputPort() != null) {
+      getPortCounter(flowEntry.getOutputPort().getPortNumber()).txCount++;
+    }
+  }
+
+  /**
+   * Count a Flowmod that hits flow entries.
+   */
+  public void countMatched() {
+    matchedCount++;
+  }
+
+  /**
+   * Get the rx count of the port.
+   * 
+   * @param portNumber The OpenFlow port ID
+   * @return The number of Flowmods that match the in port
+   */
+  public long getRxCount(int portNumber) {
+    PortCounter portCounter = portCounterMap.get(portNumber);
+    return portCounter == null ? 0 : portCounter.rxCount;
+  }
+
+  /**
+   * Get the tx count of the port.
+   * 
+   * @param portNumber The OpenFlow port ID
+   * @return The number of Flowmods that output to the port
+   */
+  public long getTxCount(int portNumber) {
+    PortCounter portCounter = portCounterMap.get(portNumber);
+    return portCounter == null ? 0 : portCounter.txCount;
+  }
+
+  /**
+   * Get the lookup count.
+   * 
+   * @return The number of Flowmods
+   */
+  public long getLookupCount() {
+    return lookupCount;
+  }
+
+  /**
+   * Get the matched count.
+   * 
+   * @return The number of Flowmods that hit flow entries
+   */
+  public long getMatchedCount() {
+    return matchedCount;
+  }
+
+  /**
+   * Get the created time.
+   * 
+   * @return The created time (System.nanoTime())
+   */
+  public long getCreatedTime() {
+    return createdTime;
+  }
+
+  /**
+   * Get the counter of the port. (Created if not exists)
+   * 
+   * @param portNumber The OpenFlow port ID
+   * @return The port counter
+   */
+  private PortCounter getPortCounter(int portNumber) {
+    PortCounter portCounter = portCounterMap.get(portNumber);
+    if (portCounter == null) {
+      portCounter = new PortCounter();
+      portCounterMap.put(portNumber, portCounter);
+    }
+    return portCounter;
+  }
+
+  /**
+   * The counters of a port.
+   */
+  private static class PortCounter {
+    private long rxCount;
+    private long txCount;
+  }
+}
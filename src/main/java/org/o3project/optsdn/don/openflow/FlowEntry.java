@@ -0,0 +1,239 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import org.projectfloodlight.openflow.protocol.OFFlowMod;
+import org.projectfloodlight.openflow.protocol.instruction.OFInstruction;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OduSigid;
+import org.projectfloodlight.openflow.types.OduSigtype;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flow entry of the emulated flow table.
+ */
+public class FlowEntry {
+  private final OFPort matchInPort;
+  private final OduSigtype matchOduSigtype;
+  private final OduSigid matchOduSigid;
+  private final int priority;
+
+  /* The Flowmod message that added this flow entry. (Keeps match, cookie and timeouts) */
+  private final OFFlowMod flowmod;
+
+  private List<OFInstruction> instructions;
+  private OFPort outputPort;
+  private OduSigtype setFieldOduSigtype;
+  private OduSigid setFieldOduSigid;
+
+  /* Installed time. (System.nanoTime()) */
+  private final long installedTime;
+
+  /**
+   * Constructor.
+   * 
+   * @param flowmod             The Flowmod message
+   * @param matchInPort         Match: In port
+   * @param matchOduSigtype     Match: ODU SIGTYPE
+   * @param matchOduSigid       Match: ODU SIGID
+   * @param outputPort          Actions: Output port
+   * @param setFieldOduSigtype  Actions: ODU SIGTYPE
+   * @param setFieldOduSigid    Actions: ODU SIGID
+   */
+  public FlowEntry(
+      OFFlowMod flowmod,
+      OFPort matchInPort,
+      OduSigtype matchOduSigtype,
+      OduSigid matchOduSigid,
+      OFPort outputPort,
+      OduSigtype setFieldOduSigtype,
+      OduSigid setFieldOduSigid) {
+    super();
+    this.flowmod = flowmod;
+    this.matchInPort = matchInPort;
+    this.matchOduSigtype = matchOduSigtype;
+    this.matchOduSigid = matchOduSigid;
+    this.priority = flowmod.getPriority();
+    this.instructions = flowmod.getInstructions();
+    this.outputPort = outputPort;
+    this.setFieldOduSigtype = setFieldOduSigtype;
+    this.setFieldOduSigid = setFieldOduSigid;
+    this.installedTime = System.nanoTime();
+  }
+
+  /**
+   * Constructor for the match condition without actions.
+   * (e.g. Flow stats request)
+   * 
+   * @param matchInPort         Match: In port
+   * @param matchOduSigtype     Match: ODU SIGTYPE
+   * @param matchOduSigid       Match: ODU SIGID
+   */
+  public FlowEntry(
+      OFPort matchInPort,
+      OduSigtype matchOduSigtype,
+      OduSigid matchOduSigid) {
+    super();
+    this.matchInPort = matchInPort;
+    this.matchOduSigtype = matchOduSigtype;
+    this.matchOduSigid = matchOduSigid;
+    this.flowmod = null;
+    this.priority = 0;
+    this.instructions = Collections.emptyList();
+    this.installedTime = System.nanoTime();
+  }
+
+  /**
+   * Replace the actions with the actions of the other flow entry.
+   * (for MODIFY command)
+   * 
+   * @param other The flow entry that has new actions
+   */
+  void setActions(FlowEntry other) {
+    this.instructions = other.instructions;
+    this.outputPort = other.outputPort;
+    this.setFieldOduSigtype = other.setFieldOduSigtype;
+    this.setFieldOduSigid = other.setFieldOduSigid;
+  }
+
+  /**
+   * Check if this flow entry is matched with the match condition.
+   * (Non-strict: The field not specified in the condition is wildcard.)
+   * 
+   * @param condition The match condition
+   * @return true: if matched
+   *         false: otherwise
+   */
+  boolean isMatched(FlowEntry condition) {
+    if (condition.matchInPort != null && !condition.matchInPort.equals(matchInPort)) {
+      return false;
+    }
+    if (condition.matchOduSigtype != null
+        && !condition.matchOduSigtype.equals(matchOduSigtype)) {
+      return false;
+    }
+    if (condition.matchOduSigid != null && !condition.matchOduSigid.equals(matchOduSigid)) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Get the link created by this flow entry.
+   * 
+   * @return The link with paired OpenFlow port IDs (null if in port or output port is not set)
+   */
+  public List<Integer> getLink() {
+    if (matchInPort == null || outputPort == null) {
+      return null;
+    }
+    return Arrays.asList(matchInPort.getPortNumber(), outputPort.getPortNumber());
+  }
+
+  /**
+   * Get the Flowmod message that added this flow entry.
+   * 
+   * @return The Flowmod message (null if the match condition)
+   */
+  public OFFlowMod getFlowmod() {
+    return flowmod;
+  }
+
+  /**
+   * Get the instructions. (Replaced by MODIFY command)
+   * 
+   * @return The instructions
+   */
+  public List<OFInstruction> getInstructions() {
+    return instructions;
+  }
+
+  /**
+   * Get the match in port.
+   * 
+   * @return The match in port
+   */
+  public OFPort getMatchInPort() {
+    return matchInPort;
+  }
+
+  /**
+   * Get the match ODU SIGTYPE.
+   * 
+   * @return The match ODU SIGTYPE
+   */
+  public OduSigtype getMatchOduSigtype() {
+    return matchOduSigtype;
+  }
+
+  /**
+   * Get the match ODU SIGID.
+   * 
+   * @return The match ODU SIGID
+   */
+  public OduSigid getMatchOduSigid() {
+    return matchOduSigid;
+  }
+
+  /**
+   * Get the priority.
+   * 
+   * @return The priority
+   */
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * Get the output port.
+   * 
+   * @return The output port
+   */
+  public OFPort getOutputPort() {
+    return outputPort;
+  }
+
+  /**
+   * Get the ODU SIGTYPE of set field action.
+   * 
+   * @return The ODU SIGTYPE
+   */
+  public OduSigtype getSetFieldOduSigtype() {
+    return setFieldOduSigtype;
+  }
+
+  /**
+   * Get the ODU SIGID of set field action.
+   * 
+   * @return The ODU SIGID
+   */
+  public OduSigid getSetFieldOduSigid() {
+    return setFieldOduSigid;
+  }
+
+  /**
+   * Get the installed time.
+   * 
+   * @return The installed time (System.nanoTime())
+   */
+  public long getInstalledTime() {
+    return installedTime;
+  }
+}
@@ -0,0 +1,312 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OduSigid;
+import org.projectfloodlight.openflow.types.OduSigtype;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Emulated flow table of a datapath.
+ * - Strict index (Key: IN_PORT, ODU_SIGTYPE, ODU_SIGID and priority)
+ * - Port index (Key: in port / output port) for non-strict operations
+ * Notes:
+ *   - Not thread-safe. (Used by the I/O thread of the connection.)
+ */
+public class FlowTable {
+  /* The strict index. */
+  private final Map<FlowKey, FlowEntry> flowEntryMap = new LinkedHashMap<FlowKey, FlowEntry>();
+
+  /* The in port index. (Key:OpenFlow port ID) */
+  private final Map<Integer, Set<FlowEntry>> inPortIndex = new HashMap<Integer, Set<FlowEntry>>();
+
+  /* The output port index. (Key:OpenFlow port ID) */
+  private final Map<Integer, Set<FlowEntry>> outputPortIndex =
+      new HashMap<Integer, Set<FlowEntry>>();
+
+  /**
+   * Add a flow entry.
+   * The flow entry that has the same match and priority is replaced.
+   * 
+   * @param flowEntry The flow entry
+   * @return The replaced flow entry (null if not exists)
+   */
+  public FlowEntry add(FlowEntry flowEntry) {
+    FlowEntry replacedEntry = flowEntryMap.put(new FlowKey(flowEntry), flowEntry);
+    if (replacedEntry != null) {
+      removeFromPortIndex(replacedEntry);
+    }
+    addToPortIndex(flowEntry);
+    return replacedEntry;
+  }
+
+  /**
+   * Replace the actions of a flow entry in this table.
+   * 
+   * @param flowEntry  The flow entry in this table
+   * @param newActions The flow entry that has new actions
+   */
+  public void modify(FlowEntry flowEntry, FlowEntry newActions) {
+    removeFromPortIndex(flowEntry);
+    flowEntry.setActions(newActions);
+    addToPortIndex(flowEntry);
+  }
+
+  /**
+   * Remove a flow entry.
+   * 
+   * @param flowEntry The flow entry in this table
+   */
+  public void remove(FlowEntry flowEntry) {
+    if (flowEntryMap.remove(new FlowKey(flowEntry)) != null) {
+      removeFromPortIndex(flowEntry);
+    }
+  }
+
+  /**
+   * Find flow entries with the match condition.
+   * 
+   * @param condition The match condition (match and priority of Flowmod)
+   * @param outPort   Condition: Output port (null or ANY if not specified)
+   * @param strict    true: match and priority must be the same
+   *                  false: the field not specified in the condition is wildcard
+   * @return The found flow entries
+   */
+  public List<FlowEntry> find(FlowEntry condition, OFPort outPort, boolean strict) {
+    Integer outPortNumber = null;
+    if (outPort != null && !outPort.equals(OFPort.ANY)) {
+      outPortNumber = outPort.getPortNumber();
+    }
+
+    List<FlowEntry> flowEntryList = new ArrayList<FlowEntry>();
+    if (strict) {
+      FlowEntry flowEntry = flowEntryMap.get(new FlowKey(condition));
+      if (flowEntry != null && isOutputTo(flowEntry, outPortNumber)) {
+        flowEntryList.add(flowEntry);
+      }
+      return flowEntryList;
+    }
+
+    Collection<FlowEntry> candidates;
+    if (condition.getMatchInPort() != null) {
+      candidates = getIndexedEntries(inPortIndex, condition.getMatchInPort().getPortNumber());
+    } else if (outPortNumber != null) {
+      candidates = getIndexedEntries(outputPortIndex, outPortNumber);
+    } else {
+      candidates = flowEntryMap.values();
+    }
+
+    for (FlowEntry flowEntry : candidates) {
+      if (flowEntry.isMatched(condition) && isOutputTo(flowEntry, outPortNumber)) {
+        flowEntryList.add(flowEntry);
+      }
+    }
+    return flowEntryList;
+  }
+
+  /**
+   * Check if the link is created by any flow entry.
+   * 
+   * @param link The link with paired OpenFlow port IDs
+   * @return true: if used
+   *         false: otherwise
+   */
+  public boolean isLinkUsed(List<Integer> link) {
+    for (FlowEntry flowEntry : getIndexedEntries(inPortIndex, link.get(0))) {
+      if (link.equals(flowEntry.getLink())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get all flow entries.
+   * 
+   * @return All flow entries (unmodifiable)
+   */
+  public Collection<FlowEntry> getFlowEntries() {
+    return Collections.unmodifiableCollection(flowEntryMap.values());
+  }
+
+  /**
+   * Get the number of flow entries.
+   * 
+   * @return The number of flow entries
+   */
+  public int size() {
+    return flowEntryMap.size();
+  }
+
+  /**
+   * Check if the flow entry outputs to the port.
+   * 
+   * @param flowEntry     The flow entry
+   * @param outPortNumber The OpenFlow port ID (null if not specified)
+   * @return true: if outputs to the port or the port is not specified
+   *         false: otherwise
+   */
+  private boolean isOutputTo(FlowEntry flowEntry, Integer outPortNumber) {
+    if (outPortNumber == null) {
+      return true;
+    }
+    OFPort outputPort = flowEntry.getOutputPort();
+    return outputPort != null && outputPort.getPortNumber() == outPortNumber;
+  }
+
+  /**
+   * Get flow entries from the port index.
+   * 
+   * @param portIndex  The port index
+   * @param portNumber The OpenFlow port ID
+   * @return The flow entries
+   */
+  private Collection<FlowEntry> getIndexedEntries(
+      Map<Integer, Set<FlowEntry>> portIndex, int portNumber) {
+    Set<FlowEntry> flowEntrySet = portIndex.get(portNumber);
+    if (flowEntrySet == null) {
+      return Collections.emptySet();
+    }
+    return flowEntrySet;
+  }
+
+  /**
+   * Add a flow entry to the port indexes.
+   * 
+   * @param flowEntry The flow entry
+   */
+  private void addToPortIndex(FlowEntry flowEntry) {
+    if (flowEntry.getMatchInPort() != null) {
+      addToPortIndex(inPortIndex, flowEntry.getMatchInPort().getPortNumber(), flowEntry);
+    }
+    if (flowEntry.getOutputPort() != null) {
+      addToPortIndex(outputPortIndex, flowEntry.getOutputPort().getPortNumber(), flowEntry);
+    }
+  }
+
+  /**
+   * Add a flow entry to the port index.
+   * 
+   * @param portIndex  The port index
+   * @param portNumber The OpenFlow port ID
+   * @param flowEntry  The flow entry
+   */
+  private void addToPortIndex(
+      Map<Integer, Set<FlowEntry>> portIndex, int portNumber, FlowEntry flowEntry) {
+    Set<FlowEntry> flowEntrySet = portIndex.get(portNumber);
+    if (flowEntrySet == null) {
+      flowEntrySet = new HashSet<FlowEntry>();
+      portIndex.put(portNumber, flowEntrySet);
+    }
+    flowEntrySet.add(flowEntry);
+  }
+
+  /**
+   * Remove a flow entry from the port indexes.
+   * 
+   * @param flowEntry The flow entry
+   */
+  private void removeFromPortIndex(FlowEntry flowEntry) {
+    if (flowEntry.getMatchInPort() != null) {
+      removeFromPortIndex(inPortIndex, flowEntry.getMatchInPort().getPortNumber(), flowEntry);
+    }
+    if (flowEntry.getOutputPort() != null) {
+      removeFromPortIndex(
+          outputPortIndex, flowEntry.getOutputPort().getPortNumber(), flowEntry);
+    }
+  }
+
+  /**
+   * Remove a flow entry from the port index.
+   * 
+   * @param portIndex  The port index
+   * @param portNumber The OpenFlow port ID
+   * @param flowEntry  The flow entry
+   */
+  private void removeFromPortIndex(
+      Map<Integer, Set<FlowEntry>> portIndex, int portNumber, FlowEntry flowEntry) {
+    Set<FlowEntry> flowEntrySet = portIndex.get(portNumber);
+    if (flowEntrySet == null) {
+      return;
+    }
+    flowEntrySet.remove(flowEntry);
+    if (flowEntrySet.isEmpty()) {
+      portIndex.remove(portNumber);
+    }
+  }
+
+  /**
+   * The key of the strict index.
+   */
+  private static class FlowKey {
+    private final OFPort inPort;
+    private final OduSigtype oduSigtype;
+    private final OduSigid oduSigid;
+    private final int priority;
+    private final int hash;
+
+    /**
+     * Constructor.
+     * 
+     * @param flowEntry The flow entry
+     */
+    private FlowKey(FlowEntry flowEntry) {
+      this.inPort = flowEntry.getMatchInPort();
+      this.oduSigtype = flowEntry.getMatchOduSigtype();
+      this.oduSigid = flowEntry.getMatchOduSigid();
+      this.priority = flowEntry.getPriority();
+      this.hash = Objects.hash(inPort, oduSigtype, oduSigid, priority);
+    }
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof FlowKey)) {
+        return false;
+      }
+      FlowKey other = (FlowKey) obj;
+      return priority == other.priority
+          && Objects.equals(inPort, other.inPort)
+          && Objects.equals(oduSigtype, other.oduSigtype)
+          && Objects.equals(oduSigid, other.oduSigid);
+    }
+  }
+}
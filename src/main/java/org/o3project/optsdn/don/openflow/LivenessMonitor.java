@@ -0,0 +1,138 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.handler.timeout.IdleState;
+import org.jboss.netty.handler.timeout.IdleStateAwareChannelHandler;
+import org.jboss.netty.handler.timeout.IdleStateEvent;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Confirm OpenFlow controller living.
+ * - Send "ECHO REQUEST" if nothing is received during the reader idle time
+ * - Measure the round trip time of "ECHO REQUEST" per connection
+ *   (Logged when the connection is closed)
+ * - Close the connection if "ECHO REPLY" is not received
+ */
+public class LivenessMonitor extends IdleStateAwareChannelHandler {
+  public static Logger logger = LoggerFactory.getLogger(LivenessMonitor.class);
+
+  /* The XID counter for "ECHO REQUEST". */
+  private static final AtomicLong echoXid = new AtomicLong();
+
+  private final OFFactory factory;
+  private final long dpid;
+  private final int maxUnrepliedEchoRequests;
+
+  /* The unreplied "ECHO REQUEST". (Key:XID, Value:Sent time[nanoseconds]) */
+  private final Map<Long, Long> echoRequestTimeMap = new ConcurrentHashMap<Long, Long>();
+
+  /* The latest round trip time[microseconds] of "ECHO REQUEST". (-1 if not measured) */
+  private volatile long latestEchoRtt = -1;
+
+  /* The max round trip time[microseconds] of "ECHO REQUEST". (-1 if not measured) */
+  private volatile long maxEchoRtt = -1;
+
+  /**
+   * Constructor.
+   * 
+   * @param factory                   OpenFlow factory
+   * @param dpid                      Datapath ID
+   * @param maxUnrepliedEchoRequests  The number of unreplied "ECHO REQUEST" to disconnect
+   */
+  public LivenessMonitor(OFFactory factory, long dpid, int maxUnrepliedEchoRequests) {
+    super();
+    this.factory = factory;
+    this.dpid = dpid;
+    this.maxUnrepliedEchoRequests = maxUnrepliedEchoRequests;
+  }
+
+  /**
+   * @see org.jboss.netty.handler.timeout.IdleStateAwareChannelHandler#channelIdle(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.handler.timeout.IdleStateEvent)
+   */
+  @Override
+  public void channelIdle(ChannelHandlerContext ctx, IdleStateEvent event) throws Exception {
+    if (event.getState() != IdleState.READER_IDLE) {
+      return;
+    }
+
+    if (echoRequestTimeMap.size() >= maxUnrepliedEchoRequests) {
+      logger.warn("Living confirmation is failed. (DPID={}, unreplied ECHO REQUEST={})",
+          dpid, echoRequestTimeMap.size());
+      ctx.getChannel().close();
+      return;
+    }
+
+    long xid = echoXid.incrementAndGet() & 0xffffffffL;
+    echoRequestTimeMap.put(xid, System.nanoTime());
+    ctx.getChannel().write(factory.buildEchoRequest()
+        .setXid(xid)
+        .build());
+  }
+
+  /**
+   * Consume "ECHO REPLY" and pass the other messages to the next handler.
+   * 
+   * @see org.jboss.netty.channel.SimpleChannelHandler#messageReceived(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.MessageEvent)
+   */
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent event)
+      throws Exception {
+    Object message = event.getMessage();
+    if (!(message instanceof OFMessage) || ((OFMessage) message).getType() != OFType.ECHO_REPLY) {
+      super.messageReceived(ctx, event);
+      return;
+    }
+
+    Long sentTime = echoRequestTimeMap.get(((OFMessage) message).getXid());
+    if (sentTime == null) {
+      return;
+    }
+
+    // The controller is alive, so all the previous requests are regarded as replied.
+    echoRequestTimeMap.clear();
+
+    long rtt = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentTime);
+    latestEchoRtt = rtt;
+    if (rtt > maxEchoRtt) {
+      maxEchoRtt = rtt;
+    }
+    logger.debug("Echo Reply message Received. (DPID={}, RTT={}us)", dpid, rtt);
+  }
+
+  /**
+   * @see org.jboss.netty.channel.SimpleChannelHandler#channelClosed(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+   */
+  @Override
+  public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent event)
+      throws Exception {
+    logger.info("Echo RTT: DPID={}, latest={}us, max={}us", dpid, latestEchoRtt, maxEchoRtt);
+    super.channelClosed(ctx, event);
+  }
+}
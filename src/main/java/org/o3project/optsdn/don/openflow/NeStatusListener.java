@@ -0,0 +1,45 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+/**
+ * Listener for NE status changed by OpenFlow messages.
+ * (e.g. NE frame. Not used in headless mode.)
+ */
+public interface NeStatusListener {
+  /**
+   * Notify that a Flowmod message is received.
+   * (The new link is already added to the flow state.)
+   * 
+   * @param flowmodText The display text for Flowmod message
+   */
+  void flowmodReceived(String flowmodText);
+
+  /**
+   * Notify that the highlight time of a Flowmod is expired.
+   * (The link is already changed to the old link in the flow state.)
+   * 
+   * @param waiting  true: if no other Flowmod is highlighted
+   *                 false: otherwise
+   */
+  void flowmodExpired(boolean waiting);
+
+  /**
+   * Notify that the connection to OpenFlow controller is closed.
+   */
+  void connectionClosed();
+}
@@ -0,0 +1,87 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.frame.CorruptedFrameException;
+import org.jboss.netty.handler.codec.frame.FrameDecoder;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OpenFlow message decoder.
+ * - Wait for the full frame with the length in the OpenFlow header (not parse half-arrived frames)
+ * - Decode all the full frames received by a read event in one pass
+ *   (The decoded messages are passed to the next handler one by one)
+ */
+public class OFMessageDecoder extends FrameDecoder {
+  /* OpenFlow header: version(1), type(1), length(2), xid(4) */
+  private static final int HEADER_LENGTH = 8;
+  private static final int LENGTH_FIELD_OFFSET = 2;
+
+  /* The reader for all OpenFlow versions. */
+  private final OFMessageReader<OFMessage> reader = OFFactories.getGenericReader();
+
+  /**
+   * Constructor.
+   */
+  public OFMessageDecoder() {
+    super(true);
+  }
+
+  /**
+   * @see org.jboss.netty.handler.codec.frame.FrameDecoder#decode(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.Channel, org.jboss.netty.buffer.ChannelBuffer)
+   */
+  @Override
+  protected Object decode(ChannelHandlerContext ctx, Channel channel,
+      ChannelBuffer channelBuffer) throws Exception {
+    if (!channel.isConnected()) {
+      return null;
+    }
+
+    List<OFMessage> messageList = null;
+    while (channelBuffer.readableBytes() >= HEADER_LENGTH) {
+      int readerIndex = channelBuffer.readerIndex();
+      int length = channelBuffer.getUnsignedShort(readerIndex + LENGTH_FIELD_OFFSET);
+      if (length < HEADER_LENGTH) {
+        throw new CorruptedFrameException("Invalid OpenFlow message length: " + length);
+      }
+      if (channelBuffer.readableBytes() < length) {
+        break;
+      }
+
+      OFMessage ofMessage = reader.readFrom(channelBuffer);
+      // Skip the rest of the frame even if the reader does not read it all.
+      channelBuffer.readerIndex(readerIndex + length);
+      if (ofMessage == null) {
+        continue;
+      }
+
+      if (messageList == null) {
+        messageList = new ArrayList<OFMessage>();
+      }
+      messageList.add(ofMessage);
+    }
+    return messageList;
+  }
+}
@@ -0,0 +1,114 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferFactory;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.buffer.DirectChannelBufferFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFPortDescStatsReply;
+import org.projectfloodlight.openflow.protocol.OFPortStatsReply;
+import org.projectfloodlight.openflow.protocol.OFTableStatsReply;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OpenFlow message encoder.
+ * - Encode a message into a direct buffer sliced from the preallocated chunk
+ *   (Netty writes direct buffers to the socket without copying)
+ * - Size the buffer from the estimated message length up front
+ * - Encode a List of messages into a composite buffer (written by a gathering write)
+ */
+public class OFMessageEncoder extends OneToOneEncoder {
+  /* The buffer factory shared by all NEs. (Slices direct buffers from preallocated chunks) */
+  private static final ChannelBufferFactory bufferFactory =
+      DirectChannelBufferFactory.getInstance();
+
+  /* The estimated length of messages. (OpenFlow 1.3) */
+  private static final int MESSAGE_LENGTH = 64;
+  private static final int MULTIPART_HEADER_LENGTH = 16;
+  private static final int FLOW_STATS_ENTRY_LENGTH = 160;
+  private static final int PORT_STATS_ENTRY_LENGTH = 112;
+  private static final int PORT_DESC_LENGTH = 64;
+  private static final int TABLE_STATS_ENTRY_LENGTH = 24;
+
+  /**
+   * @see org.jboss.netty.handler.codec.oneone.OneToOneEncoder#encode(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.Channel, java.lang.Object)
+   */
+  @Override
+  protected Object encode(ChannelHandlerContext ctx, Channel channel, Object message)
+      throws Exception {
+    if (message instanceof OFMessage) {
+      return encodeMessage((OFMessage) message);
+    } else if (message instanceof List) {
+      List<?> messageList = (List<?>) message;
+      List<ChannelBuffer> bufferList = new ArrayList<ChannelBuffer>(messageList.size());
+      for (Object ofMessage : messageList) {
+        if (!(ofMessage instanceof OFMessage)) {
+          continue;
+        }
+        bufferList.add(encodeMessage((OFMessage) ofMessage));
+      }
+      return ChannelBuffers.wrappedBuffer(
+          true, bufferList.toArray(new ChannelBuffer[bufferList.size()]));
+    } else {
+      return message;
+    }
+  }
+
+  /**
+   * Encode an OpenFlow message.
+   * (The buffer is expanded only if the estimated length is too short.)
+   * 
+   * @param ofMessage The OpenFlow message
+   * @return The encoded buffer
+   */
+  private ChannelBuffer encodeMessage(OFMessage ofMessage) {
+    ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(estimateLength(ofMessage), bufferFactory);
+    ofMessage.writeTo(buffer);
+    return buffer;
+  }
+
+  /**
+   * Estimate the length of an OpenFlow message.
+   * 
+   * @param ofMessage The OpenFlow message
+   * @return The estimated length
+   */
+  private int estimateLength(OFMessage ofMessage) {
+    if (ofMessage instanceof OFFlowStatsReply) {
+      return MULTIPART_HEADER_LENGTH
+          + FLOW_STATS_ENTRY_LENGTH * ((OFFlowStatsReply) ofMessage).getEntries().size();
+    } else if (ofMessage instanceof OFPortStatsReply) {
+      return MULTIPART_HEADER_LENGTH
+          + PORT_STATS_ENTRY_LENGTH * ((OFPortStatsReply) ofMessage).getEntries().size();
+    } else if (ofMessage instanceof OFPortDescStatsReply) {
+      return MULTIPART_HEADER_LENGTH
+          + PORT_DESC_LENGTH * ((OFPortDescStatsReply) ofMessage).getEntries().size();
+    } else if (ofMessage instanceof OFTableStatsReply) {
+      return MULTIPART_HEADER_LENGTH
+          + TABLE_STATS_ENTRY_LENGTH * ((OFTableStatsReply) ofMessage).getEntries().size();
+    }
+    return MESSAGE_LENGTH;
+  }
+}
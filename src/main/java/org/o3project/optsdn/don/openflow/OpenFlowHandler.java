@@ -17,19 +17,33 @@
 package org.o3project.optsdn.don.openflow;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.ExceptionEvent;
 import org.jboss.netty.channel.MessageEvent;
 import org.jboss.netty.handler.timeout.IdleStateAwareChannelHandler;
-import org.o3project.optsdn.don.frame.NeFrame;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.Timer;
+import org.jboss.netty.util.TimerTask;
+import org.o3project.optsdn.don.nwc.FlowState;
+import org.o3project.optsdn.don.nwc.Port;
 import org.o3project.optsdn.don.util.Config;
-import org.o3project.optsdn.don.util.Constants;
+import org.projectfloodlight.openflow.protocol.OFBadRequestCode;
 import org.projectfloodlight.openflow.protocol.OFFactory;
 import org.projectfloodlight.openflow.protocol.OFFlowMod;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsRequest;
 import org.projectfloodlight.openflow.protocol.OFHello;
 import org.projectfloodlight.openflow.protocol.OFHello.Builder;
 import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFPortDesc;
+import org.projectfloodlight.openflow.protocol.OFPortStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFPortStatsRequest;
+import org.projectfloodlight.openflow.protocol.OFStatsReplyFlags;
+import org.projectfloodlight.openflow.protocol.OFStatsRequest;
+import org.projectfloodlight.openflow.protocol.OFTableStatsEntry;
 import org.projectfloodlight.openflow.protocol.action.OFAction;
 import org.projectfloodlight.openflow.protocol.action.OFActionOutput;
 import org.projectfloodlight.openflow.protocol.action.OFActionSetField;
@@ -41,15 +55,25 @@ import org.projectfloodlight.openflow.protocol.oxm.OFOxm;
 import org.projectfloodlight.openflow.protocol.oxm.OFOxmOduSigid;
 import org.projectfloodlight.openflow.protocol.oxm.OFOxmOduSigtype;
 import org.projectfloodlight.openflow.types.DatapathId;
+import org.projectfloodlight.openflow.types.OFErrorCauseData;
 import org.projectfloodlight.openflow.types.OduSigid;
 import org.projectfloodlight.openflow.types.OduSigtype;
 import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * OpenFlow Message Handler.
@@ -57,30 +81,90 @@ import java.util.List;
 public class OpenFlowHandler extends IdleStateAwareChannelHandler {
   public static Logger logger = LoggerFactory.getLogger(OpenFlowHandler.class);
 
+  /* The max flow stats entries per Multipart Reply. (less than 64KB) */
+  private static final int MAX_FLOW_STATS_PER_REPLY = 256;
+
+  /* The max port desc/port stats entries per Multipart Reply. (less than 64KB) */
+  private static final int MAX_PORT_ENTRIES_PER_REPLY = 512;
+
+  /* The description of the emulated datapath for DESC Multipart Reply. */
+  private static final String MFR_DESC = "O3 Project";
+  private static final String HW_DESC = "DummyOptNode";
+  private static final String SW_DESC = "DummyOptNode 1.0.0";
+  private static final String SERIAL_NUM = "None";
+
   private OFFactory factory;
   private long dpid;
-  private NeFrame neFrame;
+  private FlowState flowState;
+  private NeStatusListener neStatusListener;
+
+  /**
+   * The ports of the NE. (Key:OpenFlow port ID)
+   */
+  private final SortedMap<Integer, Port> openFlowPortMap = new TreeMap<Integer, Port>();
+
+  /**
+   * The port descriptions for PORT_DESC Multipart Reply. (Ports are not changed)
+   */
+  private final List<OFPortDesc> portDescList = new ArrayList<OFPortDesc>();
+
+  /**
+   * The timer shared by all NEs.
+   */
+  private Timer timer;
+
+  /**
+   * The emulated flow table.
+   */
+  private final FlowTable flowTable = new FlowTable();
 
   /**
-   * The set for Timer Thread.
+   * The number of highlighted Flowmods that are not expired.
    */
-  private List<TimerThread> timerThreadSet;
+  private final AtomicInteger pendingHighlightCount = new AtomicInteger();
+
+  /**
+   * The statistics of the emulated datapath.
+   */
+  private final DatapathStatistics statistics = new DatapathStatistics();
 
   private Integer flowHighlightTime;
 
   /**
    * Constructor.
    * 
-   * @param factory  OpenFlow factory
-   * @param dpid     Datapath ID
-   * @param neFrame  NE frame
+   * @param factory           OpenFlow factory
+   * @param dpid              Datapath ID
+   * @param portList          Ports of the NE (null if no port)
+   * @param flowState         Flow state of the NE (null in headless mode)
+   * @param neStatusListener  NE status listener (null in headless mode)
+   * @param timer             The timer shared by all NEs
    */
-  public OpenFlowHandler(OFFactory factory, long dpid, NeFrame neFrame) {
+  public OpenFlowHandler(OFFactory factory, long dpid, List<Port> portList,
+      FlowState flowState, NeStatusListener neStatusListener, Timer timer) {
     super();
     this.factory = factory;
     this.dpid = dpid;
-    this.neFrame = neFrame;
-    this.timerThreadSet = new ArrayList<OpenFlowHandler.TimerThread>();
+    this.flowState = flowState;
+    this.neStatusListener = neStatusListener;
+    this.timer = timer;
+
+    if (portList != null) {
+      for (Port port : portList) {
+        if (port.getOpenFlowPortId() != null) {
+          openFlowPortMap.put(port.getOpenFlowPortId(), port);
+        }
+      }
+    }
+    for (Entry<Integer, Port> entry : openFlowPortMap.entrySet()) {
+      Port port = entry.getValue();
+      // The port name is up to 15 characters (OFP_MAX_PORT_NAME_LEN=16 with null terminator)
+      String portName = port.getLayer() + "-" + port.getPortType() + port.getPortId();
+      portDescList.add(factory.buildPortDesc()
+          .setPortNo(OFPort.of(entry.getKey()))
+          .setName(StringUtils.left(portName, 15))
+          .build());
+    }
 
     try {
       flowHighlightTime = Integer.valueOf(Config.getProperty("flowHighlightTime"));
@@ -89,6 +173,15 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
     }
   }
 
+  /**
+   * Get the number of highlighted Flowmods that are not expired.
+   * 
+   * @return The number of highlighted Flowmods
+   */
+  public int getPendingHighlightCount() {
+    return pendingHighlightCount.get();
+  }
+
   /**
    * @see org.jboss.netty.channel.SimpleChannelHandler#channelConnected(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
    */
@@ -118,6 +211,14 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
   public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent event)
       throws Exception {
     logger.info("Channel closed.");
+    // The flow table is discarded with this connection, so no Flowmod erases its links.
+    // (Before connectionClosed(), which allows the NE frame to connect again.)
+    if (flowState != null) {
+      flowState.removeAllLinks();
+    }
+    if (neStatusListener != null) {
+      neStatusListener.connectionClosed();
+    }
   }
 
   /**
@@ -146,53 +247,300 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
         break;
       case STATS_REQUEST:
         logger.info("Multipart Request message Received.");
-        ctx.getChannel().write(factory.buildPortDescStatsReply()
-            .setXid(ofMessage.getXid())
-            .build());
+        ctx.getChannel().write(createStatsReplies((OFStatsRequest<?>) ofMessage));
         break;
       case FLOW_MOD:
         logger.info("Flowmod message Received.");
         proceedFlowmod(ofMessage);
         break;
+      case BARRIER_REQUEST:
+        // All the previous messages are already proceeded in order.
+        logger.info("Barrier Request message Received.");
+        ctx.getChannel().write(factory.buildBarrierReply()
+            .setXid(ofMessage.getXid())
+            .build());
+        break;
       default:
         break;
     }
   }
 
+  /**
+   * Create Multipart Reply messages for Multipart Request message.
+   * - PORT_DESC: The ports of the NE
+   * - FLOW: The flow entries of the emulated flow table
+   * - PORT/TABLE: The counters maintained on the Flowmod path
+   * - DESC: The description of DON and the DP ID
+   * - The others: BAD_REQUEST error (BAD_MULTIPART) with the request
+   * The reply is split into messages with REPLY_MORE flag not to exceed 64KB.
+   * 
+   * @param statsRequest The Multipart Request message
+   * @return The Multipart Reply messages (or the error message)
+   */
+  private List<OFMessage> createStatsReplies(OFStatsRequest<?> statsRequest) {
+    long xid = statsRequest.getXid();
+    List<OFMessage> replyList = new ArrayList<OFMessage>();
+
+    switch (statsRequest.getStatsType()) {
+      case PORT_DESC: {
+        List<List<OFPortDesc>> parts = partition(portDescList, MAX_PORT_ENTRIES_PER_REPLY);
+        for (int i = 0; i < parts.size(); i++) {
+          replyList.add(factory.buildPortDescStatsReply()
+              .setXid(xid)
+              .setFlags(createReplyFlags(i, parts.size()))
+              .setEntries(parts.get(i))
+              .build());
+        }
+        break;
+      }
+      case FLOW: {
+        List<List<OFFlowStatsEntry>> parts = partition(
+            createFlowStatsEntries((OFFlowStatsRequest) statsRequest), MAX_FLOW_STATS_PER_REPLY);
+        for (int i = 0; i < parts.size(); i++) {
+          replyList.add(factory.buildFlowStatsReply()
+              .setXid(xid)
+              .setFlags(createReplyFlags(i, parts.size()))
+              .setEntries(parts.get(i))
+              .build());
+        }
+        break;
+      }
+      case PORT: {
+        List<List<OFPortStatsEntry>> parts = partition(
+            createPortStatsEntries((OFPortStatsRequest) statsRequest), MAX_PORT_ENTRIES_PER_REPLY);
+        for (int i = 0; i < parts.size(); i++) {
+          replyList.add(factory.buildPortStatsReply()
+              .setXid(xid)
+              .setFlags(createReplyFlags(i, parts.size()))
+              .setEntries(parts.get(i))
+              .build());
+        }
+        break;
+      }
+      case TABLE: {
+        OFTableStatsEntry tableStatsEntry = factory.buildTableStatsEntry()
+            .setTableId(TableId.of(0))
+            .setActiveCount(flowTable.size())
+            .setLookupCount(U64.of(statistics.getLookupCount()))
+            .setMatchedCount(U64.of(statistics.getMatchedCount()))
+            .build();
+        replyList.add(factory.buildTableStatsReply()
+            .setXid(xid)
+            .setEntries(Collections.singletonList(tableStatsEntry))
+            .build());
+        break;
+      }
+      case DESC:
+        replyList.add(factory.buildDescStatsReply()
+            .setXid(xid)
+            .setMfrDesc(MFR_DESC)
+            .setHwDesc(HW_DESC)
+            .setSwDesc(SW_DESC)
+            .setSerialNum(SERIAL_NUM)
+            .setDpDesc("DPID=" + dpid)
+            .build());
+        break;
+      default:
+        logger.debug("Unsupported Multipart Request type: {}", statsRequest.getStatsType());
+        ChannelBuffer requestBuffer = ChannelBuffers.dynamicBuffer();
+        statsRequest.writeTo(requestBuffer);
+        byte[] requestData = new byte[requestBuffer.readableBytes()];
+        requestBuffer.readBytes(requestData);
+        replyList.add(factory.errorMsgs().buildBadRequestErrorMsg()
+            .setXid(xid)
+            .setCode(OFBadRequestCode.BAD_MULTIPART)
+            .setData(OFErrorCauseData.of(requestData, statsRequest.getVersion()))
+            .build());
+        break;
+    }
+    return replyList;
+  }
+
+  /**
+   * Create flow stats entries with the match condition of Flow stats request.
+   * (The packet/byte counts are always 0, because DON has no data plane.)
+   * 
+   * @param flowStatsRequest The Flow stats request
+   * @return The flow stats entries
+   */
+  private List<OFFlowStatsEntry> createFlowStatsEntries(OFFlowStatsRequest flowStatsRequest) {
+    List<OFFlowStatsEntry> flowStatsEntryList = new ArrayList<OFFlowStatsEntry>();
+
+    // Only table 0 is emulated.
+    TableId tableId = flowStatsRequest.getTableId();
+    if (tableId != null && !tableId.equals(TableId.ALL) && tableId.getValue() != 0) {
+      return flowStatsEntryList;
+    }
+
+    Match match = flowStatsRequest.getMatch();
+    FlowEntry condition = new FlowEntry(
+        match.get(MatchField.IN_PORT),
+        match.get(MatchField.ODU_SIGTYPE),
+        match.get(MatchField.ODU_SIGID));
+    long cookieMask = flowStatsRequest.getCookieMask().getValue();
+    long cookie = flowStatsRequest.getCookie().getValue() & cookieMask;
+
+    long now = System.nanoTime();
+    for (FlowEntry flowEntry : flowTable.find(condition, flowStatsRequest.getOutPort(), false)) {
+      OFFlowMod flowmod = flowEntry.getFlowmod();
+      if ((flowmod.getCookie().getValue() & cookieMask) != cookie) {
+        continue;
+      }
+
+      long duration = now - flowEntry.getInstalledTime();
+      flowStatsEntryList.add(factory.buildFlowStatsEntry()
+          .setTableId(TableId.of(0))
+          .setDurationSec(TimeUnit.NANOSECONDS.toSeconds(duration))
+          .setDurationNsec(duration % TimeUnit.SECONDS.toNanos(1))
+          .setPriority(flowEntry.getPriority())
+          .setIdleTimeout(flowmod.getIdleTimeout())
+          .setHardTimeout(flowmod.getHardTimeout())
+          .setCookie(flowmod.getCookie())
+          .setPacketCount(U64.ZERO)
+          .setByteCount(U64.ZERO)
+          .setMatch(flowmod.getMatch())
+          .setInstructions(flowEntry.getInstructions())
+          .build());
+    }
+    return flowStatsEntryList;
+  }
+
+  /**
+   * Create port stats entries for the port of Port stats request.
+   * (rx/tx packets are the numbers of Flowmods that match the in port / output to the port.)
+   * 
+   * @param portStatsRequest The Port stats request
+   * @return The port stats entries
+   */
+  private List<OFPortStatsEntry> createPortStatsEntries(OFPortStatsRequest portStatsRequest) {
+    List<OFPortStatsEntry> portStatsEntryList = new ArrayList<OFPortStatsEntry>();
+
+    OFPort portNo = portStatsRequest.getPortNo();
+    Set<Integer> portNumbers;
+    if (portNo == null || portNo.equals(OFPort.ANY)) {
+      portNumbers = openFlowPortMap.keySet();
+    } else if (openFlowPortMap.containsKey(portNo.getPortNumber())) {
+      portNumbers = Collections.singleton(portNo.getPortNumber());
+    } else {
+      return portStatsEntryList;
+    }
+
+    long duration = System.nanoTime() - statistics.getCreatedTime();
+    long durationSec = TimeUnit.NANOSECONDS.toSeconds(duration);
+    long durationNsec = duration % TimeUnit.SECONDS.toNanos(1);
+    for (Integer portNumber : portNumbers) {
+      portStatsEntryList.add(factory.buildPortStatsEntry()
+          .setPortNo(OFPort.of(portNumber))
+          .setRxPackets(U64.of(statistics.getRxCount(portNumber)))
+          .setTxPackets(U64.of(statistics.getTxCount(portNumber)))
+          .setDurationSec(durationSec)
+          .setDurationNsec(durationNsec)
+          .build());
+    }
+    return portStatsEntryList;
+  }
+
+  /**
+   * Create the flags of the split Multipart Reply.
+   * 
+   * @param index The index of the split reply
+   * @param count The number of the split replies
+   * @return REPLY_MORE: if not the last reply
+   *         empty: otherwise
+   */
+  private Set<OFStatsReplyFlags> createReplyFlags(int index, int count) {
+    if (index < count - 1) {
+      return EnumSet.of(OFStatsReplyFlags.REPLY_MORE);
+    }
+    return EnumSet.noneOf(OFStatsReplyFlags.class);
+  }
+
+  /**
+   * Split the entries into the parts for Multipart Reply.
+   * 
+   * @param entries     The entries
+   * @param maxEntries  The max entries per part
+   * @return The parts (at least one part even if the entries are empty)
+   */
+  private static <T> List<List<T>> partition(List<T> entries, int maxEntries) {
+    List<List<T>> parts = new ArrayList<List<T>>();
+    for (int from = 0; from < entries.size(); from += maxEntries) {
+      parts.add(entries.subList(from, Math.min(from + maxEntries, entries.size())));
+    }
+    if (parts.isEmpty()) {
+      parts.add(entries);
+    }
+    return parts;
+  }
+
   /**
    * Proceed Flowmod massage.
-   * (Support only ADD command.)
+   * - Update the emulated flow table
+   * - Draw links of added/modified flow entries with determined color
+   *   (i.e. "flowmodLinkNewColorR/G/B/A" in config.properties file)
+   * - Erase links of deleted flow entries
+   * - Display Flowmod message on Flowmod state
    * 
    * @param ofMessage The Flowmod message.
    */
   private void proceedFlowmod(OFMessage ofMessage) {
     OFFlowMod ofFlowmod = (OFFlowMod) ofMessage;
+    FlowEntry flowEntry = createFlowEntry(ofFlowmod);
+    statistics.countFlowmod(flowEntry);
+
+    String flowmodText = displayFlowmodMessage(
+        flowEntry.getMatchInPort(),
+        flowEntry.getMatchOduSigtype(),
+        flowEntry.getMatchOduSigid(),
+        flowEntry.getOutputPort(),
+        flowEntry.getSetFieldOduSigtype(),
+        flowEntry.getSetFieldOduSigid()
+    );
+
+    List<List<Integer>> newLinks;
     switch (ofFlowmod.getCommand()) {
       case ADD:
-        proceedFlowmodAdd(ofFlowmod);
+        newLinks = proceedFlowmodAdd(flowEntry);
         break;
       case MODIFY:
+        newLinks = proceedFlowmodModify(flowEntry, false);
         break;
       case MODIFY_STRICT:
+        newLinks = proceedFlowmodModify(flowEntry, true);
         break;
       case DELETE:
+        newLinks = proceedFlowmodDelete(flowEntry, ofFlowmod.getOutPort(), false);
         break;
       case DELETE_STRICT:
+        newLinks = proceedFlowmodDelete(flowEntry, ofFlowmod.getOutPort(), true);
         break;
       default:
-        break;
+        return;
+    }
+
+    // Nothing to display in headless mode.
+    if (flowState == null || neStatusListener == null) {
+      return;
+    }
+
+    for (List<Integer> link : newLinks) {
+      flowState.addNewLink(link);
     }
+    neStatusListener.flowmodReceived(flowmodText);
+
+    // Schedule the expiry of the highlight.
+    // (Change link color from flowmodLinkNewColor to flowmodLinkOldColor)
+    pendingHighlightCount.incrementAndGet();
+    timer.newTimeout(new FlowHighlightExpiryTask(newLinks), flowHighlightTime, TimeUnit.SECONDS);
   }
 
   /**
-   * Proceed Flowmod ADD massage.
-   * - Draw a link with determined color
-   *   (i.e. "flowmodLinkNewColorR/G/B/A" in config.properties file)
-   * - Display Flowmod message on Flowmod state
+   * Create a flow entry from Flowmod message (Match, Actions).
    * 
    * @param ofFlowmod The Flowmod message
+   * @return The flow entry
    */
-  private void proceedFlowmodAdd(OFFlowMod ofFlowmod) {
+  private FlowEntry createFlowEntry(OFFlowMod ofFlowmod) {
     OduSigtype setFieldOduSigtype = null;
     OduSigid setFieldOduSigid = null;
     OFPort outputPort = null;
@@ -242,7 +590,8 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
     OduSigtype matchOduSigtype = match.get(MatchField.ODU_SIGTYPE);
     OduSigid matchOduSigid = match.get(MatchField.ODU_SIGID);
 
-    displayFlowmodMessage(
+    return new FlowEntry(
+        ofFlowmod,
         matchInPort,
         matchOduSigtype,
         matchOduSigid,
@@ -250,26 +599,91 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
         setFieldOduSigtype,
         setFieldOduSigid
     );
+  }
 
-    List<Integer> edgePorts;
-    if (matchInPort != null && outputPort != null) {
-      edgePorts = Arrays.asList(
-          matchInPort.getPortNumber(),
-          outputPort.getPortNumber()
-      );
+  /**
+   * Proceed Flowmod ADD massage.
+   * The flow entry that has the same match and priority is replaced.
+   * 
+   * @param flowEntry The flow entry
+   * @return The new links
+   */
+  private List<List<Integer>> proceedFlowmodAdd(FlowEntry flowEntry) {
+    FlowEntry replacedEntry = flowTable.add(flowEntry);
+    if (replacedEntry != null) {
+      statistics.countMatched();
+      removeUnusedLink(replacedEntry.getLink());
+    }
 
-      addLink(edgePorts);
-    } else {
-      edgePorts = null;
+    List<List<Integer>> newLinks = new ArrayList<List<Integer>>();
+    if (flowEntry.getLink() != null) {
+      newLinks.add(flowEntry.getLink());
     }
+    return newLinks;
+  }
 
-    // Create Timer Thread.
-    // (Change link color from flowmodLinkNewColor to flowmodLinkOldColor)
-    TimerThread thread = new TimerThread(edgePorts);
-    thread.start();
+  /**
+   * Proceed Flowmod MODIFY/MODIFY_STRICT massage.
+   * The actions of the matched flow entries are replaced.
+   * 
+   * @param flowEntry The flow entry that has the match condition and new actions
+   * @param strict    true: MODIFY_STRICT
+   *                  false: MODIFY
+   * @return The new links
+   */
+  private List<List<Integer>> proceedFlowmodModify(FlowEntry flowEntry, boolean strict) {
+    List<FlowEntry> modifiedEntries = flowTable.find(flowEntry, null, strict);
+    if (!modifiedEntries.isEmpty()) {
+      statistics.countMatched();
+    }
+
+    List<List<Integer>> newLinks = new ArrayList<List<Integer>>();
+    for (FlowEntry modifiedEntry : modifiedEntries) {
+      List<Integer> oldLink = modifiedEntry.getLink();
+      flowTable.modify(modifiedEntry, flowEntry);
+      removeUnusedLink(oldLink);
+
+      List<Integer> newLink = modifiedEntry.getLink();
+      if (newLink != null) {
+        newLinks.add(newLink);
+      }
+    }
+    return newLinks;
+  }
 
-    // Add to Timer Thread Set.
-    timerThreadSet.add(thread);
+  /**
+   * Proceed Flowmod DELETE/DELETE_STRICT massage.
+   * 
+   * @param flowEntry The flow entry that has the match condition
+   * @param outPort   Condition: Output port
+   * @param strict    true: DELETE_STRICT
+   *                  false: DELETE
+   * @return The new links (always empty)
+   */
+  private List<List<Integer>> proceedFlowmodDelete(
+      FlowEntry flowEntry, OFPort outPort, boolean strict) {
+    List<FlowEntry> deletedEntries = flowTable.find(flowEntry, outPort, strict);
+    if (!deletedEntries.isEmpty()) {
+      statistics.countMatched();
+    }
+
+    for (FlowEntry deletedEntry : deletedEntries) {
+      flowTable.remove(deletedEntry);
+      removeUnusedLink(deletedEntry.getLink());
+    }
+    return new ArrayList<List<Integer>>();
+  }
+
+  /**
+   * Erase the link if no other flow entry creates it.
+   * 
+   * @param link The link with paired OpenFlow port IDs (ignored if null)
+   */
+  private void removeUnusedLink(List<Integer> link) {
+    if (link == null || flowState == null || flowTable.isLinkUsed(link)) {
+      return;
+    }
+    flowState.removeLink(link);
   }
 
   /**
@@ -281,8 +695,9 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
    * @param outputPort          Actions: Output port
    * @param setFieldOduSigtype  Actions: ODU SIGTYPE
    * @param setFieldOduid       Actions: ODU SIGID
+   * @return The display text for Flowmod message
    */
-  private void displayFlowmodMessage(
+  private String displayFlowmodMessage(
       OFPort matchInPort,
       OduSigtype matchOduSigtype,
       OduSigid matchOduSigid,
@@ -307,7 +722,7 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
     logger.info("\r\n" 
         + "DPID=" + dpid + "\r\n" 
         + text);
-    neFrame.getFlowmodStatusLabel().setText(text);
+    return text;
   }
 
   /**
@@ -367,79 +782,36 @@ public class OpenFlowHandler extends IdleStateAwareChannelHandler {
   }
 
   /**
-   * Add a link and refresh NE frame.
-   * 
-   * @param link Link
-   */
-  private void addLink(List<Integer> link) {
-    neFrame.getLinkListNew().add(link);
-    neFrame.repaint();
-  }
-
-  /**
-   * Timer Thread.
+   * Flowmod highlight expiry task (run by the shared timer).
    * - Change link color from flowmodLinkNewColor to flowmodLinkOldColor
    * - Display Waiting message on Flowmod state
    */
-  private class TimerThread extends Thread {
-    private List<Integer> edgePorts;
+  private class FlowHighlightExpiryTask implements TimerTask {
+    private List<List<Integer>> links;
 
     /**
      * Constructor.
      * 
-     * @param edgePorts The link to change color
+     * @param links The links to change color
      */
-    public TimerThread(List<Integer> edgePorts) {
+    public FlowHighlightExpiryTask(List<List<Integer>> links) {
       super();
-      this.edgePorts = edgePorts;
+      this.links = links;
     }
 
     /**
-     * @see java.lang.Thread#run()
+     * @see org.jboss.netty.util.TimerTask#run(org.jboss.netty.util.Timeout)
      */
     @Override
-    public void run() {
-      try {
-        sleep(1000 * flowHighlightTime);
-      } catch (InterruptedException e) {
-        logger.error("", e);
-      }
-
-      if (edgePorts != null) {
-        List<List<Integer>> linkListNew = neFrame.getLinkListNew();
-        synchronized (linkListNew) {
-          linkListNew.remove(edgePorts);
-        }
-        neFrame.getLinkSetOld().add(edgePorts);
+    public void run(Timeout timeout) {
+      for (List<Integer> link : links) {
+        flowState.expireNewLink(link);
       }
 
       // Display Waiting message on Flowmod state,
-      // if the other thread is not alive.
-      if (!isOtherThreadAlive()) {
-        neFrame.getFlowmodStatusLabel().setText(Constants.FLOWMOD_INFO_TEXT_WAITING);
-      }
-
-      neFrame.repaint();
-
-      timerThreadSet.remove(this);
-    }
-
-    /**
-     * Check if the other thread is alive.
-     *
-     * @return true: if other thread is alive
-     *         false: otherwise
-     */
-    private boolean isOtherThreadAlive() {
-      for (TimerThread flowmodTask : timerThreadSet) {
-        if (flowmodTask.equals(this)) {
-          continue;
-        }
-        if (flowmodTask.isAlive()) {
-          return true;
-        }
-      }
-      return false;
+      // if the other highlight is not pending.
+      boolean waiting = pendingHighlightCount.decrementAndGet() == 0;
+      neStatusListener.flowmodExpired(waiting);
     }
   }
 }
@@ -16,35 +16,75 @@
 
 package org.o3project.optsdn.don.openflow;
 
-import org.jboss.netty.buffer.ChannelBuffer;
-import org.jboss.netty.buffer.ChannelBuffers;
-import org.jboss.netty.channel.Channel;
-import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.Channels;
-import org.jboss.netty.handler.codec.frame.FrameDecoder;
-import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
-import org.projectfloodlight.openflow.protocol.OFFactories;
-import org.projectfloodlight.openflow.protocol.OFMessage;
-import org.projectfloodlight.openflow.protocol.OFMessageReader;
+import org.jboss.netty.handler.timeout.IdleStateHandler;
+import org.jboss.netty.util.Timer;
+import org.o3project.optsdn.don.nwc.FlowState;
+import org.o3project.optsdn.don.nwc.Port;
+import org.o3project.optsdn.don.util.Config;
+import org.projectfloodlight.openflow.protocol.OFFactory;
 
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * OpenFlow Pipeline Factory.
  */
 public class OpenFlowPipelineFactory implements ChannelPipelineFactory {
-  private OpenFlowHandler openFlowHandler;
+  private OFFactory factory;
+  private long dpid;
+  private List<Port> portList;
+  private FlowState flowState;
+  private NeStatusListener neStatusListener;
+  private Timer timer;
+  private ScheduledExecutorService flushScheduler;
+
+  private int echoInterval;
+  private int maxUnrepliedEchoRequests;
+  private long writeBatchWindow;
 
   /**
    * Constructor.
    * 
-   * @param openFlowHandler OpenFlow Handler
+   * @param factory           OpenFlow factory
+   * @param dpid              Datapath ID
+   * @param portList          Ports of the NE (null if no port)
+   * @param flowState         Flow state of the NE (null in headless mode)
+   * @param neStatusListener  NE status listener (null in headless mode)
+   * @param timer             The timer shared by all NEs
+   * @param flushScheduler    The scheduler to flush batched writes shared by all NEs
    */
-  public OpenFlowPipelineFactory(OpenFlowHandler openFlowHandler) {
+  public OpenFlowPipelineFactory(OFFactory factory, long dpid, List<Port> portList,
+      FlowState flowState, NeStatusListener neStatusListener, Timer timer,
+      ScheduledExecutorService flushScheduler) {
     super();
-    this.openFlowHandler = openFlowHandler;
+    this.factory = factory;
+    this.dpid = dpid;
+    this.portList = portList;
+    this.flowState = flowState;
+    this.neStatusListener = neStatusListener;
+    this.timer = timer;
+    this.flushScheduler = flushScheduler;
+
+    try {
+      echoInterval = Integer.valueOf(Config.getProperty("echoInterval"));
+    } catch (Exception e) {
+      echoInterval = 10;
+    }
+
+    try {
+      maxUnrepliedEchoRequests = Integer.valueOf(Config.getProperty("maxUnrepliedEchoRequests"));
+    } catch (Exception e) {
+      maxUnrepliedEchoRequests = 3;
+    }
+
+    try {
+      writeBatchWindow = Long.valueOf(Config.getProperty("writeBatchWindow"));
+    } catch (Exception e) {
+      writeBatchWindow = 0;
+    }
   }
 
   /**
@@ -54,48 +94,14 @@ public class OpenFlowPipelineFactory implements ChannelPipelineFactory {
   public ChannelPipeline getPipeline() throws Exception {
     ChannelPipeline pipeline = Channels.pipeline();
 
-    pipeline.addLast("decoder", new FrameDecoder() {
-
-      @Override
-      protected Object decode(ChannelHandlerContext ctx, Channel channel,
-          ChannelBuffer channelBuffer) throws Exception {
-        if (!channel.isConnected()) {
-          return null;
-        }
-
-        OFMessageReader<OFMessage> ofMessageReader = OFFactories.getGenericReader();
-        OFMessage ofMessage = ofMessageReader.readFrom(channelBuffer);
-        return ofMessage;
-      }
-    });
-
-    pipeline.addLast("encoder", new OneToOneEncoder() {
-
-      @Override
-      protected Object encode(ChannelHandlerContext arg0, Channel arg1,
-          Object message) throws Exception {
-        if (message instanceof OFMessage) {
-          OFMessage ofMessage = (OFMessage) message;
-          ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
-          ofMessage.writeTo(buffer);
-          return buffer;
-        } else if (message instanceof List) {
-          List<?> messageList = (List<?>) message;
-          ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
-          for (Object ofMessage : messageList) {
-            if (!(ofMessage instanceof OFMessage)) {
-              continue;
-            }
-            ((OFMessage) ofMessage).writeTo(buffer);
-          }
-          return buffer;
-        } else {
-          return message;
-        }
-      }
-    });
+    pipeline.addLast("batch", new WriteBatchHandler(dpid, writeBatchWindow, flushScheduler));
+    pipeline.addLast("decoder", new OFMessageDecoder());
+    pipeline.addLast("encoder", new OFMessageEncoder());
 
-    pipeline.addLast("handler", openFlowHandler);
+    pipeline.addLast("idle", new IdleStateHandler(timer, echoInterval, 0, 0));
+    pipeline.addLast("liveness", new LivenessMonitor(factory, dpid, maxUnrepliedEchoRequests));
+    pipeline.addLast("handler",
+        new OpenFlowHandler(factory, dpid, portList, flowState, neStatusListener, timer));
 
     return pipeline;
   }
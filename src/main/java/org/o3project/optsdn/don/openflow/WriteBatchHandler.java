@@ -0,0 +1,219 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.openflow;
+
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.handler.queue.BufferedWriteHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesce OpenFlow writes into a single write.
+ * - Hold the writes during a read cycle (i.e. replies for the received messages),
+ *   and flush them at the end of the read cycle
+ * - Flush the writes out of a read cycle (e.g. "ECHO REQUEST") immediately
+ * - If the batch window is set, flush the writes after the window instead
+ * - Measure the batch size per connection (Logged when the connection is closed)
+ * Notes:
+ *   - Must be the first handler of the pipeline. (Receives raw buffers and encoded buffers)
+ */
+public class WriteBatchHandler extends BufferedWriteHandler {
+  public static Logger logger = LoggerFactory.getLogger(WriteBatchHandler.class);
+
+  private final long dpid;
+
+  /* The batch window[microseconds]. (0: flush at the end of the read cycle) */
+  private final long writeBatchWindow;
+
+  /* The scheduler to flush after the batch window. */
+  private final ScheduledExecutorService flushScheduler;
+
+  private final WriteBatchMetrics metrics = new WriteBatchMetrics();
+
+  /* The number of queued writes. (Reset by flush) */
+  private final AtomicInteger queuedCount = new AtomicInteger();
+
+  /* true: during a read cycle. (Set only by the I/O thread) */
+  private volatile boolean inReadCycle;
+
+  /* true: the flush after the batch window is scheduled. (Guarded by this) */
+  private boolean flushScheduled;
+
+  /**
+   * Constructor.
+   * 
+   * @param dpid              Datapath ID
+   * @param writeBatchWindow  The batch window[microseconds] (0: no window)
+   * @param flushScheduler    The scheduler to flush after the batch window
+   */
+  public WriteBatchHandler(long dpid, long writeBatchWindow,
+      ScheduledExecutorService flushScheduler) {
+    super(true);
+    this.dpid = dpid;
+    this.writeBatchWindow = writeBatchWindow;
+    this.flushScheduler = flushScheduler;
+  }
+
+  /**
+   * Pass the received data to the next handler as a read cycle.
+   * 
+   * @see org.jboss.netty.channel.SimpleChannelHandler#messageReceived(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.MessageEvent)
+   */
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent event)
+      throws Exception {
+    inReadCycle = true;
+    try {
+      super.messageReceived(ctx, event);
+    } finally {
+      inReadCycle = false;
+      requestFlush();
+    }
+  }
+
+  /**
+   * Queue the write, and flush it if out of a read cycle.
+   * 
+   * @see org.jboss.netty.handler.queue.BufferedWriteHandler#writeRequested(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.MessageEvent)
+   */
+  @Override
+  public void writeRequested(ChannelHandlerContext ctx, MessageEvent event) throws Exception {
+    queuedCount.incrementAndGet();
+    super.writeRequested(ctx, event);
+    // The write queued during a read cycle is flushed at the end of the read cycle.
+    if (!inReadCycle) {
+      requestFlush();
+    }
+  }
+
+  /**
+   * @see org.jboss.netty.handler.queue.BufferedWriteHandler#flush(boolean)
+   */
+  @Override
+  public void flush(boolean consolidateOnFlush) {
+    int batchSize = queuedCount.getAndSet(0);
+    if (batchSize > 0) {
+      metrics.record(batchSize);
+    }
+    super.flush(consolidateOnFlush);
+  }
+
+  /**
+   * @see org.jboss.netty.handler.queue.BufferedWriteHandler#channelClosed(org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+   */
+  @Override
+  public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent event)
+      throws Exception {
+    logger.info("Write batch: DPID={}, flush={}, message={}, max batch size={}, average={}",
+        dpid, metrics.getFlushCount(), metrics.getMessageCount(), metrics.getMaxBatchSize(),
+        String.format("%.2f", metrics.getAverageBatchSize()));
+    super.channelClosed(ctx, event);
+  }
+
+  /**
+   * Flush the queued writes now, or after the batch window.
+   */
+  private void requestFlush() {
+    if (writeBatchWindow <= 0 || flushScheduler == null) {
+      flush();
+      return;
+    }
+
+    synchronized (this) {
+      if (flushScheduled) {
+        return;
+      }
+      flushScheduled = true;
+    }
+    flushScheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (WriteBatchHandler.this) {
+          flushScheduled = false;
+        }
+        flush();
+      }
+    }, writeBatchWindow, TimeUnit.MICROSECONDS);
+  }
+
+  /**
+   * The batch metrics of a connection.
+   */
+  private static class WriteBatchMetrics {
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    /**
+     * Record a flush.
+     * 
+     * @param batchSize The number of writes flushed at once
+     */
+    private void record(int batchSize) {
+      flushCount.incrementAndGet();
+      messageCount.addAndGet(batchSize);
+      int max = maxBatchSize.get();
+      while (batchSize > max && !maxBatchSize.compareAndSet(max, batchSize)) {
+        max = maxBatchSize.get();
+      }
+    }
+
+    /**
+     * Get the number of flushes.
+     * 
+     * @return The number of flushes
+     */
+    public long getFlushCount() {
+      return flushCount.get();
+    }
+
+    /**
+     * Get the number of flushed writes.
+     * 
+     * @return The number of flushed writes
+     */
+    public long getMessageCount() {
+      return messageCount.get();
+    }
+
+    /**
+     * Get the max batch size.
+     * 
+     * @return The max number of writes flushed at once
+     */
+    public int getMaxBatchSize() {
+      return maxBatchSize.get();
+    }
+
+    /**
+     * Get the average batch size.
+     * 
+     * @return The average number of writes flushed at once (0 if not flushed)
+     */
+    public double getAverageBatchSize() {
+      long flushes = flushCount.get();
+      return flushes == 0 ? 0 : (double) messageCount.get() / flushes;
+    }
+  }
+}
@@ -62,6 +62,8 @@ public class TestMain {
           ofcPortNumber,
           OFVersion.OF_13,
           (long) 0,
+          null,
+          null,
           null
       );
     } catch (Exception e) {
@@ -0,0 +1,169 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.o3project.optsdn.don.nwc.Port;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Test of NetworkInformationDiff.
+ */
+public class NetworkInformationDiffTest {
+  @Test
+  public void testNoDifference() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).addNe("OPT2", 2).build(),
+        new Builder().addNe("OPT1", 1).addNe("OPT2", 2).build());
+
+    assertTrue(diff.isEmpty());
+  }
+
+  @Test
+  public void testAddedAndRemovedNe() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).addNe("OPT2", 2).build(),
+        new Builder().addNe("OPT1", 1).addNe("OPT3", 3).build());
+
+    assertFalse(diff.isEmpty());
+    assertEquals(Collections.singleton("OPT3"), diff.getAddedNeIds());
+    assertEquals(Collections.singleton("OPT2"), diff.getRemovedNeIds());
+    assertTrue(diff.getChangedNeIds().isEmpty());
+  }
+
+  @Test
+  public void testNeWithDpidOnlyIsCompared() {
+    NetworkInformation live = new Builder().addNe("OPT1", 1).build();
+    NetworkInformation reloaded = new Builder().addNe("OPT1", 1).build();
+    reloaded.getDpidMap().put("OPT9", 9L);
+
+    assertEquals(Collections.singleton("OPT9"),
+        NetworkInformationDiff.create(live, reloaded).getAddedNeIds());
+  }
+
+  @Test
+  public void testChangedDpid() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).addNe("OPT2", 2).build(),
+        new Builder().addNe("OPT1", 10).addNe("OPT2", 2).build());
+
+    assertEquals(Collections.singleton("OPT1"), diff.getChangedNeIds());
+    assertTrue(diff.getAddedNeIds().isEmpty());
+    assertTrue(diff.getRemovedNeIds().isEmpty());
+  }
+
+  @Test
+  public void testChangedOpenFlowPortId() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).addPort("OPT1", 1, 1).addNe("OPT2", 2).build(),
+        new Builder().addNe("OPT1", 1).addPort("OPT1", 1, 99).addNe("OPT2", 2).build());
+
+    assertEquals(Collections.singleton("OPT1"), diff.getChangedNeIds());
+  }
+
+  @Test
+  public void testAddedPort() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).addPort("OPT1", 1, 1).build(),
+        new Builder().addNe("OPT1", 1).addPort("OPT1", 1, 1).addPort("OPT1", 2, 2).build());
+
+    assertEquals(Collections.singleton("OPT1"), diff.getChangedNeIds());
+  }
+
+  @Test
+  public void testChangedPt() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).setPt("OPT1", "PT1").build(),
+        new Builder().addNe("OPT1", 1).setPt("OPT1", "PT2").build());
+
+    assertEquals(Collections.singleton("OPT1"), diff.getChangedNeIds());
+  }
+
+  @Test
+  public void testChangedLink() {
+    NetworkInformationDiff diff = NetworkInformationDiff.create(
+        new Builder().addNe("OPT1", 1).addPort("OPT1", 1, 1).addPort("OPT1", 2, 2)
+            .addLink("OPT1", 1, 2).build(),
+        new Builder().addNe("OPT1", 1).addPort("OPT1", 1, 1).addPort("OPT1", 2, 2)
+            .addLink("OPT1", 2, 1).build());
+
+    assertEquals(Collections.singleton("OPT1"), diff.getChangedNeIds());
+  }
+
+  /**
+   * Builder of the network information for the test.
+   */
+  private static class Builder {
+    private final Set<String> neIdSet = new TreeSet<String>();
+    private final Set<Port> portSet = new LinkedHashSet<Port>();
+    private final Map<String, List<List<Port>>> linkMap = new HashMap<String, List<List<Port>>>();
+    private final Map<String, String> nePtMap = new HashMap<String, String>();
+    private final Map<String, Long> dpidMap = new HashMap<String, Long>();
+
+    private Builder addNe(String neId, long dpid) {
+      neIdSet.add(neId);
+      dpidMap.put(neId, dpid);
+      return this;
+    }
+
+    private Builder addPort(String neId, int portId, int openFlowPortId) {
+      portSet.add(createPort(neId, portId, openFlowPortId));
+      return this;
+    }
+
+    private Builder setPt(String neId, String ptId) {
+      nePtMap.put(neId, ptId);
+      return this;
+    }
+
+    private Builder addLink(String neId, int portId1, int portId2) {
+      if (!linkMap.containsKey(neId)) {
+        linkMap.put(neId, new ArrayList<List<Port>>());
+      }
+      linkMap.get(neId).add(Arrays.asList(
+          createPort(neId, portId1, portId1), createPort(neId, portId2, portId2)));
+      return this;
+    }
+
+    private NetworkInformation build() {
+      NetworkInformation networkInformation = new NetworkInformation();
+      networkInformation.setNetworkInformation(neIdSet, portSet, linkMap,
+          new HashMap<String, List<List<Port>>>(), nePtMap, dpidMap);
+      return networkInformation;
+    }
+
+    private static Port createPort(String neId, int portId, int openFlowPortId) {
+      Port port = new Port("NW=SDN,NE=" + neId + ",Layer=ODU,TTP=" + portId,
+          "SDN", neId, "ODU", "TTP", portId);
+      port.setOpenFlowPortId(openFlowPortId);
+      return port;
+    }
+  }
+}
@@ -0,0 +1,213 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.o3project.optsdn.don.nwc.Port;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Test of NetworkInformationSnapshot.
+ */
+public class NetworkInformationSnapshotTest {
+  private static final int MAGIC = 0x444f4e53;
+  private static final int VERSION = 1;
+  private static final long KEY = 12345L;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File snapshotFile;
+  private NetworkInformation networkInformation;
+  private Port ttp;
+  private Port ctp;
+  private Port ptPort;
+
+  /**
+   * Create the network information to be written.
+   */
+  @Before
+  public void setUp() {
+    snapshotFile = new File(temporaryFolder.getRoot(), "network_information.snapshot");
+
+    ttp = new Port("NW=SDN,NE=OPT1,Layer=ODU,TTP=1", "SDN", "OPT1", "ODU", "TTP", 1);
+    ttp.setOpenFlowPortId(1);
+    ctp = new Port("NW=SDN,NE=OPT1,Layer=OCh,CTP=2", "SDN", "OPT1", "OCh", "CTP", 2);
+    ptPort = new Port("NW=SDN,NE=PT1,Layer=Ether,TTP=1", "SDN", "PT1", "Ether", "TTP", 1);
+
+    Set<Port> portSet = new LinkedHashSet<Port>(Arrays.asList(ttp, ctp));
+    Map<String, List<List<Port>>> linkMap = new HashMap<String, List<List<Port>>>();
+    linkMap.put("OPT1", listOf(Arrays.asList(ttp, ptPort)));
+    Map<String, List<List<Port>>> omsMap = new HashMap<String, List<List<Port>>>();
+    omsMap.put("OPT1", listOf(Arrays.asList(ctp, ttp)));
+    Map<String, String> nePtMap = new HashMap<String, String>();
+    nePtMap.put("OPT1", "PT1");
+    Map<String, Long> dpidMap = new HashMap<String, Long>();
+    dpidMap.put("OPT1", Long.MAX_VALUE);
+
+    networkInformation = new NetworkInformation();
+    networkInformation.setNetworkInformation(new TreeSet<String>(Arrays.asList("OPT1")),
+        portSet, linkMap, omsMap, nePtMap, dpidMap);
+  }
+
+  @Test
+  public void testRoundTrip() {
+    NetworkInformationSnapshot.write(snapshotFile, KEY, networkInformation);
+
+    NetworkInformation readInformation = new NetworkInformation();
+    assertTrue(NetworkInformationSnapshot.read(snapshotFile, KEY, readInformation));
+
+    assertEquals(networkInformation.getNeIdSet(), readInformation.getNeIdSet());
+    assertEquals(new ArrayList<Port>(networkInformation.getPortSet()),
+        new ArrayList<Port>(readInformation.getPortSet()));
+    assertEquals(networkInformation.getLinkMap(), readInformation.getLinkMap());
+    assertEquals(networkInformation.getOmsConnectionInfoListMap(),
+        readInformation.getOmsConnectionInfoListMap());
+    assertEquals(networkInformation.getNePtMap(), readInformation.getNePtMap());
+    assertEquals(networkInformation.getDpidMap(), readInformation.getDpidMap());
+
+    // OpenFlow port IDs and the shared port instances are restored
+    Port readTtp = readInformation.getPortSet().iterator().next();
+    assertEquals(Integer.valueOf(1), readTtp.getOpenFlowPortId());
+    assertEquals(null, readInformation.getLinkMap().get("OPT1").get(0).get(1)
+        .getOpenFlowPortId());
+    assertSame(readTtp, readInformation.getLinkMap().get("OPT1").get(0).get(0));
+    assertSame(readTtp, readInformation.getOmsConnectionInfoListMap().get("OPT1").get(0).get(1));
+    assertEquals("ODU", readTtp.getLayer());
+    assertEquals("OPT1", readTtp.getNeId());
+  }
+
+  @Test
+  public void testSnapshotIsReplacedAfterRead() {
+    NetworkInformationSnapshot.write(snapshotFile, KEY, networkInformation);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY + 1, new NetworkInformation()));
+
+    NetworkInformationSnapshot.write(snapshotFile, KEY + 1, networkInformation);
+    assertTrue(NetworkInformationSnapshot.read(snapshotFile, KEY + 1, new NetworkInformation()));
+    assertFalse(new File(snapshotFile.getPath() + ".tmp").exists());
+  }
+
+  @Test
+  public void testMissingSnapshot() {
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  @Test
+  public void testOutOfDateSnapshot() {
+    NetworkInformationSnapshot.write(snapshotFile, KEY, networkInformation);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY + 1, new NetworkInformation()));
+  }
+
+  @Test
+  public void testTruncatedSnapshot() throws IOException {
+    NetworkInformationSnapshot.write(snapshotFile, KEY, networkInformation);
+    RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw");
+    try {
+      file.setLength(file.length() - 6);
+    } finally {
+      file.close();
+    }
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  @Test
+  public void testNegativeStringCount() throws IOException {
+    writeBody(-1);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  @Test
+  public void testNegativeStringLength() throws IOException {
+    writeBody(1, -5);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  @Test
+  public void testTooLargePortCount() throws IOException {
+    writeBody(0, Integer.MAX_VALUE);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  @Test
+  public void testNullNeId() throws IOException {
+    // strings: 0, ports: 0, port set: 0, NE IDs: 1 (NULL_INDEX)
+    writeBody(0, 0, 0, 1, -1);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  @Test
+  public void testInvalidPortIndex() throws IOException {
+    // strings: 0, ports: 0, port set: 1 (index 3)
+    writeBody(0, 0, 1, 3);
+    assertFalse(NetworkInformationSnapshot.read(snapshotFile, KEY, new NetworkInformation()));
+  }
+
+  /**
+   * Write a snapshot that has a valid header and the body.
+   * 
+   * @param body The body (int values)
+   * @throws IOException Write Failed
+   */
+  private void writeBody(int... body) throws IOException {
+    DataOutputStream out = new DataOutputStream(new FileOutputStream(snapshotFile));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(KEY);
+      for (int value : body) {
+        out.writeInt(value);
+      }
+      // Padding for the counts checked with the remaining size
+      out.write(new byte[64]);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Create a list of links.
+   * 
+   * @param link The link
+   * @return The list of links
+   */
+  private static List<List<Port>> listOf(List<Port> link) {
+    List<List<Port>> linkList = new ArrayList<List<Port>>();
+    linkList.add(link);
+    return linkList;
+  }
+}
@@ -0,0 +1,139 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+package org.o3project.optsdn.don.nwc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test of FlowState.
+ */
+public class FlowStateTest {
+  private static final List<Integer> LINK1 = Arrays.asList(1, 101);
+  private static final List<Integer> LINK2 = Arrays.asList(2, 102);
+  private static final List<Integer> LINK3 = Arrays.asList(3, 103);
+
+  @Test
+  public void testExpiredLinksAreNotBounded() {
+    FlowState flowState = new FlowState(1, 0);
+    for (int i = 0; i < 100; i++) {
+      List<Integer> link = Arrays.asList(i, i + 100);
+      flowState.addNewLink(link);
+      flowState.expireNewLink(link);
+    }
+
+    FlowState.Snapshot snapshot = flowState.getSnapshot();
+    assertTrue(snapshot.getNewLinks().isEmpty());
+    assertEquals(100, snapshot.getOldLinks().size());
+    assertTrue(snapshot.getHistoryLinks().isEmpty());
+  }
+
+  @Test
+  public void testRemovedLinksAreBounded() {
+    FlowState flowState = new FlowState(1, 2);
+    for (List<Integer> link : Arrays.asList(LINK1, LINK2, LINK3)) {
+      flowState.addNewLink(link);
+      flowState.expireNewLink(link);
+    }
+    flowState.addNewLink(LINK1);
+
+    flowState.removeLink(LINK1);
+    flowState.removeLink(LINK2);
+    flowState.removeLink(LINK3);
+
+    FlowState.Snapshot snapshot = flowState.getSnapshot();
+    assertTrue(snapshot.getNewLinks().isEmpty());
+    assertTrue(snapshot.getOldLinks().isEmpty());
+    assertEquals(Arrays.asList(LINK2, LINK3), snapshot.getHistoryLinks());
+  }
+
+  @Test
+  public void testRemovedLinkIsMovedToEnd() {
+    FlowState flowState = new FlowState(1, 2);
+    flowState.addNewLink(LINK1);
+    flowState.removeLink(LINK1);
+    flowState.addNewLink(LINK2);
+    flowState.removeLink(LINK2);
+    flowState.addNewLink(LINK1);
+    flowState.removeLink(LINK1);
+    flowState.addNewLink(LINK3);
+    flowState.removeLink(LINK3);
+
+    assertEquals(Arrays.asList(LINK1, LINK3), flowState.getSnapshot().getHistoryLinks());
+  }
+
+  @Test
+  public void testReaddedLinkIsRemovedFromHistory() {
+    FlowState flowState = new FlowState(1, 10);
+    flowState.addNewLink(LINK1);
+    flowState.removeLink(LINK1);
+    flowState.addNewLink(LINK1);
+
+    FlowState.Snapshot snapshot = flowState.getSnapshot();
+    assertEquals(Arrays.asList(LINK1), snapshot.getNewLinks());
+    assertTrue(snapshot.getHistoryLinks().isEmpty());
+  }
+
+  @Test
+  public void testRemovingUnknownLinkIsIgnored() {
+    FlowState flowState = new FlowState(1, 10);
+    FlowState.Snapshot snapshot = flowState.getSnapshot();
+    flowState.removeLink(LINK1);
+
+    assertSame(snapshot, flowState.getSnapshot());
+    assertTrue(flowState.getSnapshot().getHistoryLinks().isEmpty());
+  }
+
+  @Test
+  public void testRemoveAllLinksMovesActiveLinksToHistory() {
+    FlowState flowState = new FlowState(1, 2);
+    flowState.addNewLink(LINK1);
+    flowState.expireNewLink(LINK1);
+    flowState.addNewLink(LINK2);
+    flowState.addNewLink(LINK3);
+
+    flowState.removeAllLinks();
+
+    FlowState.Snapshot snapshot = flowState.getSnapshot();
+    assertTrue(snapshot.getNewLinks().isEmpty());
+    assertTrue(snapshot.getOldLinks().isEmpty());
+    assertEquals(Arrays.asList(LINK2, LINK3), snapshot.getHistoryLinks());
+
+    // A new session starts with no active links.
+    flowState.expireNewLink(LINK2);
+    assertTrue(flowState.getSnapshot().getOldLinks().isEmpty());
+  }
+
+  @Test
+  public void testRemoveAllLinksWithoutActiveLinksIsIgnored() {
+    FlowState flowState = new FlowState(1, 10);
+    flowState.addNewLink(LINK1);
+    flowState.removeLink(LINK1);
+    FlowState.Snapshot snapshot = flowState.getSnapshot();
+
+    flowState.removeAllLinks();
+
+    assertSame(snapshot, flowState.getSnapshot());
+    assertEquals(Arrays.asList(LINK1), snapshot.getHistoryLinks());
+  }
+}
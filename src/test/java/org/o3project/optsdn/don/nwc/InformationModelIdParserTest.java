@@ -0,0 +1,127 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+
+package org.o3project.optsdn.don.nwc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Test of InformationModelIdParser.
+ */
+public class InformationModelIdParserTest {
+  private final InformationModelIdParser parser = new InformationModelIdParser();
+
+  /**
+   * Parse an ID of a TTP.
+   */
+  @Test
+  public void testParseTtp() {
+    String id = "NW=SDN,NE=OPT1,Layer=ODU,TTP=1";
+    Port port = parser.parse(id);
+
+    assertEquals(id, port.getInformationModelId());
+    assertEquals("SDN", port.getNw());
+    assertEquals("OPT1", port.getNeId());
+    assertEquals("ODU", port.getLayer());
+    assertSame(Layer.ODU, port.getLayerValue());
+    assertEquals("TTP", port.getPortType());
+    assertSame(PortType.TTP, port.getPortTypeValue());
+    assertEquals(1, port.getPortId());
+    assertEquals(new Port(id, "SDN", "OPT1", "ODU", "TTP", 1), port);
+  }
+
+  /**
+   * Parse an ID of a CTP with spaces around the keys and values.
+   */
+  @Test
+  public void testParseCtp() {
+    String id = "NW=SDN, NE=OPT2, Layer=OCh, CTP=2147483647 ";
+    Port port = parser.parse(id);
+
+    assertEquals("SDN", port.getNw());
+    assertEquals("OPT2", port.getNeId());
+    assertEquals("OCh", port.getLayer());
+    assertSame(Layer.OCH, port.getLayerValue());
+    assertEquals("CTP", port.getPortType());
+    assertSame(PortType.CTP, port.getPortTypeValue());
+    assertEquals(Integer.MAX_VALUE, port.getPortId());
+    assertEquals(new Port(id, "SDN", "OPT2", "OCh", "CTP", Integer.MAX_VALUE), port);
+  }
+
+  /**
+   * NW is optional and an unknown layer keeps its name.
+   */
+  @Test
+  public void testParseWithoutNwAndUnknownLayer() {
+    Port port = parser.parse("NE=OPT1,Layer=OTU,TTP=3");
+
+    assertNull(port.getNw());
+    assertEquals("OTU", port.getLayer());
+    assertNull(port.getLayerValue());
+    assertEquals(3, port.getPortId());
+  }
+
+  /**
+   * NW ID, NE ID and layer name are shared between parsed ports.
+   */
+  @Test
+  public void testParseInternsNames() {
+    Port port1 = parser.parse("NW=SDN,NE=OPT1,Layer=ODU,TTP=1");
+    Port port2 = parser.parse("NW=SDN,NE=OPT1,Layer=ODU,CTP=2");
+
+    assertSame(port1.getNw(), port2.getNw());
+    assertSame(port1.getNeId(), port2.getNeId());
+    assertSame(port1.getLayer(), port2.getLayer());
+  }
+
+  /**
+   * Invalid IDs are rejected.
+   */
+  @Test
+  public void testParseInvalid() {
+    assertInvalid("NW=SDN,Layer=ODU,TTP=1");
+    assertInvalid("NW=SDN,NE=OPT1,TTP=1");
+    assertInvalid("NW=SDN,NE=OPT1,Layer=ODU");
+    assertInvalid("NW=SDN,NE=OPT1,Layer=ODU,TTP=1,CTP=2");
+    assertInvalid("NW=SDN,NE=OPT1,Layer=ODU,TTP=1a");
+    assertInvalid("NW=SDN,NE=OPT1,Layer=ODU,TTP=-1");
+    assertInvalid("NW=SDN,NE=OPT1,Layer=ODU,TTP=");
+    assertInvalid("NW=SDN,NE=OPT1,Layer=ODU,CTP=2147483648");
+    assertInvalid("NW=SDN,NE,Layer=ODU,TTP=1");
+    assertInvalid("");
+  }
+
+  /**
+   * Check that the ID is rejected.
+   * 
+   * @param informationModelId The Information Model ID
+   */
+  private void assertInvalid(String informationModelId) {
+    try {
+      parser.parse(informationModelId);
+      fail(informationModelId);
+    } catch (IllegalArgumentException e) {
+      assertEquals(
+          "Information Model ID[" + informationModelId + "] is invalid.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/* 
+* Copyright 2015 FUJITSU LIMITED. 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License"); 
+* you may not use this file except in compliance with the License. 
+* You may obtain a copy of the License at 
+* 
+*   http://www.apache.org/licenses/LICENSE-2.0 
+* 
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the License is distributed on an "AS IS" BASIS, 
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+* See the License for the specific language governing permissions and 
+* limitations under the License. 
+*/
+
+
+package org.o3project.optsdn.don.openflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowMod;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OduSigid;
+import org.projectfloodlight.openflow.types.OduSigtype;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test of FlowTable.
+ */
+public class FlowTableTest {
+  private static final OFFactory FACTORY = OFFactories.getFactory(OFVersion.OF_13);
+  private static final OduSigtype SIGTYPE = OduSigtype.of((byte) 1);
+
+  private FlowTable flowTable;
+
+  /**
+   * Create an empty flow table.
+   */
+  @Before
+  public void setUp() {
+    flowTable = new FlowTable();
+  }
+
+  /**
+   * Create a flow entry.
+   * 
+   * @param priority The priority
+   * @param inPort   Match: In port (null if wildcard)
+   * @param tpn      Match: TPN of ODU SIGID
+   * @param outPort  Actions: Output port (null if no output)
+   * @return The flow entry
+   */
+  private static FlowEntry createFlowEntry(int priority, Integer inPort, int tpn, Integer outPort) {
+    OFFlowMod flowmod = FACTORY.buildFlowAdd().setPriority(priority).build();
+    return new FlowEntry(
+        flowmod,
+        inPort == null ? null : OFPort.of(inPort),
+        SIGTYPE,
+        OduSigid.of((short) tpn, (short) 1, (short) 1),
+        outPort == null ? null : OFPort.of(outPort),
+        null,
+        null);
+  }
+
+  /**
+   * Adding an entry with the same match and priority replaces the old entry.
+   */
+  @Test
+  public void testAddReplacesSameMatchAndPriority() {
+    FlowEntry first = createFlowEntry(10, 1, 1, 2);
+    FlowEntry second = createFlowEntry(10, 1, 1, 3);
+    FlowEntry otherPriority = createFlowEntry(20, 1, 1, 4);
+
+    assertNull(flowTable.add(first));
+    assertSame(first, flowTable.add(second));
+    assertNull(flowTable.add(otherPriority));
+    assertEquals(2, flowTable.size());
+
+    assertTrue(flowTable.find(createFlowEntry(0, null, 1, null), OFPort.of(2), false).isEmpty());
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(1, 2)));
+    assertTrue(flowTable.isLinkUsed(Arrays.asList(1, 3)));
+  }
+
+  /**
+   * Strict find requires the same match and priority.
+   */
+  @Test
+  public void testFindStrict() {
+    FlowEntry flowEntry = createFlowEntry(10, 1, 1, 2);
+    flowTable.add(flowEntry);
+    flowTable.add(createFlowEntry(10, 1, 2, 3));
+
+    List<FlowEntry> found = flowTable.find(createFlowEntry(10, 1, 1, null), null, true);
+    assertEquals(1, found.size());
+    assertSame(flowEntry, found.get(0));
+
+    assertTrue(flowTable.find(createFlowEntry(20, 1, 1, null), null, true).isEmpty());
+    assertTrue(flowTable.find(createFlowEntry(10, null, 1, null), null, true).isEmpty());
+  }
+
+  /**
+   * Non-strict find treats unspecified fields as wildcard and ignores the priority.
+   */
+  @Test
+  public void testFindNonStrict() {
+    flowTable.add(createFlowEntry(10, 1, 1, 2));
+    flowTable.add(createFlowEntry(20, 1, 2, 3));
+    flowTable.add(createFlowEntry(30, 4, 1, 5));
+
+    assertEquals(1, flowTable.find(createFlowEntry(0, 1, 1, null), null, false).size());
+    assertEquals(2, flowTable.find(new FlowEntry(OFPort.of(1), null, null), null, false).size());
+    assertEquals(3, flowTable.find(new FlowEntry(null, null, null), null, false).size());
+    assertEquals(2, flowTable.find(
+        new FlowEntry(null, SIGTYPE, OduSigid.of((short) 1, (short) 1, (short) 1)),
+        null, false).size());
+    assertTrue(flowTable.find(new FlowEntry(OFPort.of(9), null, null), null, false).isEmpty());
+  }
+
+  /**
+   * The output port condition filters both strict and non-strict find.
+   */
+  @Test
+  public void testFindOutPort() {
+    FlowEntry toPort2 = createFlowEntry(10, 1, 1, 2);
+    flowTable.add(toPort2);
+    flowTable.add(createFlowEntry(20, 1, 2, 3));
+    flowTable.add(createFlowEntry(30, 4, 3, null));
+
+    FlowEntry any = new FlowEntry(null, null, null);
+    List<FlowEntry> found = flowTable.find(any, OFPort.of(2), false);
+    assertEquals(1, found.size());
+    assertSame(toPort2, found.get(0));
+    assertEquals(1, flowTable.find(new FlowEntry(OFPort.of(1), null, null), OFPort.of(3), false)
+        .size());
+    assertTrue(flowTable.find(new FlowEntry(OFPort.of(4), null, null), OFPort.of(2), false)
+        .isEmpty());
+    assertEquals(3, flowTable.find(any, OFPort.ANY, false).size());
+    assertEquals(3, flowTable.find(any, null, false).size());
+
+    assertEquals(1, flowTable.find(createFlowEntry(10, 1, 1, null), OFPort.of(2), true).size());
+    assertTrue(flowTable.find(createFlowEntry(10, 1, 1, null), OFPort.of(3), true).isEmpty());
+    assertEquals(1, flowTable.find(createFlowEntry(10, 1, 1, null), OFPort.ANY, true).size());
+  }
+
+  /**
+   * Modifying the actions updates the output port index.
+   */
+  @Test
+  public void testModify() {
+    FlowEntry flowEntry = createFlowEntry(10, 1, 1, 2);
+    flowTable.add(flowEntry);
+
+    flowTable.modify(flowEntry, createFlowEntry(0, null, 0, 3));
+    assertEquals(OFPort.of(3), flowEntry.getOutputPort());
+    assertEquals(1, flowTable.size());
+
+    FlowEntry any = new FlowEntry(null, null, null);
+    assertTrue(flowTable.find(any, OFPort.of(2), false).isEmpty());
+    assertEquals(1, flowTable.find(any, OFPort.of(3), false).size());
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(1, 2)));
+    assertTrue(flowTable.isLinkUsed(Arrays.asList(1, 3)));
+  }
+
+  /**
+   * Removing an entry updates the strict index and the port indexes.
+   */
+  @Test
+  public void testRemove() {
+    FlowEntry flowEntry = createFlowEntry(10, 1, 1, 2);
+    FlowEntry other = createFlowEntry(20, 1, 2, 2);
+    flowTable.add(flowEntry);
+    flowTable.add(other);
+
+    flowTable.remove(flowEntry);
+    assertEquals(1, flowTable.size());
+    assertTrue(flowTable.find(createFlowEntry(10, 1, 1, null), null, true).isEmpty());
+    List<FlowEntry> found = flowTable.find(new FlowEntry(null, null, null), OFPort.of(2), false);
+    assertEquals(1, found.size());
+    assertSame(other, found.get(0));
+    assertTrue(flowTable.isLinkUsed(Arrays.asList(1, 2)));
+
+    flowTable.remove(other);
+    flowTable.remove(other);
+    assertEquals(0, flowTable.size());
+    assertTrue(flowTable.getFlowEntries().isEmpty());
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(1, 2)));
+  }
+
+  /**
+   * A link is used only while a flow entry connects the paired ports.
+   */
+  @Test
+  public void testIsLinkUsed() {
+    flowTable.add(createFlowEntry(10, 1, 1, 2));
+    flowTable.add(createFlowEntry(20, null, 2, 3));
+    flowTable.add(createFlowEntry(30, 4, 3, null));
+
+    assertTrue(flowTable.isLinkUsed(Arrays.asList(1, 2)));
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(2, 1)));
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(1, 3)));
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(4, 3)));
+    assertFalse(flowTable.isLinkUsed(Arrays.asList(9, 9)));
+  }
+}